@@ -1,9 +1,21 @@
 package com.epages.docs;
 
+import com.epages.docs.exercise.AnimationRunner;
+import com.epages.docs.exercise.AnimationServer;
+import com.epages.docs.exercise.BoardGenerator;
+
+import java.io.IOException;
+import java.util.Arrays;
+
 import static com.epages.docs.exercise.Draw.*;
 
 /**
  * HypnoToad
+ *
+ * Without arguments it plays the exercise, otherwise
+ * {@code run --option=value...} plays a single animation (see {@link AnimationRunner}),
+ * {@code serve <port>} serves the animations over the network and
+ * {@code frame} prints one frame.
  */
 public class Main {
 
@@ -12,7 +24,26 @@ public class Main {
 
     private Main() {}
 
-    public static void main(String[] args) throws InterruptedException {
+    public static void main(String[] args) throws InterruptedException, IOException {
+        if (args.length > 0) {
+            switch (args[0]) {
+                case "frame":
+                    frame();
+                    return;
+                case "serve":
+                    if (args.length < 2) {
+                        usage();
+                        return;
+                    }
+                    AnimationServer.hypnoToad(Integer.parseInt(args[1]), MAX_X, MAX_Y);
+                    return;
+                case "run":
+                    AnimationRunner.main(Arrays.copyOfRange(args, 1, args.length));
+                    return;
+                default:
+                    throw new IllegalArgumentException("unknown command " + args[0]);
+            }
+        }
         System.out.println(generateBoardStream());
         Thread.sleep(2000);
         print(new BoundedDiagonalMovesProvider(19, MAX_X), null, MAX_X * 6);
@@ -21,4 +52,21 @@ public class Main {
         print(new StaticSinusMovesSupplier(MAX_X, MAX_Y, -0.02), Position.of(MAX_X, MAX_Y), -1);
     }
 
+    private static void usage() {
+        System.err.println("usage: Main [frame | serve <port> | run --option=value...]");
+    }
+
+    /**
+     * Render-only path printing a single frame, loading no more than the JDK and {@link BoardGenerator}.
+     * The frame is generated sequentially, so neither the common pool nor the stream classes are loaded.
+     * {@link StartupBenchmark} measures the time until it shows up.
+     */
+    private static void frame() {
+        BoardGenerator board = new BoardGenerator(MAX_Y, BoardGenerator.diagonals(MAX_Y));
+        byte[] frame = new byte[Math.toIntExact(board.getSize() * board.getRowWidth())];
+        board.generateSequentially(0, board.getSize(), frame, 0);
+        System.out.write(frame, 0, frame.length);
+        System.out.flush();
+    }
+
 }
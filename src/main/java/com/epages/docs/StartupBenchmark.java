@@ -0,0 +1,74 @@
+package com.epages.docs;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time to first frame of {@code Main frame}, each run in a fresh JVM.
+ *
+ * Every argument after the number of runs is another set of JVM options to compare
+ * against the defaults, e.g. {@code 20 "-XX:SharedArchiveFile=build/cds/main.jsa" "-XX:TieredStopAtLevel=1"}.
+ */
+public class StartupBenchmark {
+
+    private StartupBenchmark() {}
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        int runs = args.length > 0 ? Integer.parseInt(args[0]) : 10;
+        List<String> configurations = new ArrayList<>();
+        configurations.add("");
+        configurations.addAll(Arrays.asList(args).subList(Math.min(1, args.length), args.length));
+
+        for (String options : configurations) {
+            long[] firstFrame = new long[runs];
+            long[] exit = new long[runs];
+            for (int run = 0; run < runs; run++) {
+                long start = System.nanoTime();
+                Process process = new ProcessBuilder(command(options))
+                        .redirectError(ProcessBuilder.Redirect.INHERIT)
+                        .start();
+                InputStream out = process.getInputStream();
+                if (out.read() < 0) {
+                    throw new IllegalStateException("no frame with options '" + options + "', exit code " + process.waitFor());
+                }
+                firstFrame[run] = System.nanoTime() - start;
+                while (out.read(new byte[8192]) >= 0) {
+                    // drain the rest of the frame
+                }
+                process.waitFor();
+                exit[run] = System.nanoTime() - start;
+            }
+            System.out.printf("%-40s first frame %s, exit %s%n",
+                    options.isEmpty() ? "(defaults)" : options, summary(firstFrame), summary(exit));
+        }
+    }
+
+    private static List<String> command(String options) {
+        List<String> command = new ArrayList<>();
+        command.add(System.getProperty("java.home") + File.separator + "bin" + File.separator + "java");
+        for (String option : options.split("\\s+")) {
+            if (!option.isEmpty()) {
+                command.add(option);
+            }
+        }
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        command.add(Main.class.getName());
+        command.add("frame");
+        return command;
+    }
+
+    private static String summary(long[] nanos) {
+        long[] sorted = nanos.clone();
+        Arrays.sort(sorted);
+        return String.format("min %d ms, median %d ms, max %d ms",
+                TimeUnit.NANOSECONDS.toMillis(sorted[0]),
+                TimeUnit.NANOSECONDS.toMillis(sorted[sorted.length / 2]),
+                TimeUnit.NANOSECONDS.toMillis(sorted[sorted.length - 1]));
+    }
+}
@@ -0,0 +1,221 @@
+package com.epages.docs.exercise;
+
+import com.epages.docs.exercise.Draw.Board;
+import com.epages.docs.exercise.Draw.BoundedDiagonalMovesProvider;
+import com.epages.docs.exercise.Draw.Position;
+import com.epages.docs.exercise.Draw.SinusMovesSupplier;
+import com.epages.docs.exercise.Draw.StaticSinusMovesSupplier;
+import lombok.Value;
+
+import java.io.BufferedOutputStream;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+/**
+ * Plays an animation chosen at launch and reports its throughput, for capacity tests at any canvas size.
+ *
+ * <pre>
+ * --width=90 --height=45           canvas size in cells
+ * --generator=diagonal             diagonal, sinus or static-sinus
+ * --frames=1000                    measured frames
+ * --warmup=100                     frames played before measuring
+ * --fps=0                          frame rate target, 0 plays as fast as possible
+ * --sink=stdout                    stdout, null or a file path
+ * </pre>
+ *
+ * The report goes to stderr, so it does not mix with frames on stdout.
+ */
+public class AnimationRunner {
+
+    private static final byte[] CLEAR = "\u001B[H\u001B[2J".getBytes(StandardCharsets.US_ASCII);
+
+    @Value
+    public static class Options {
+        long width;
+        long height;
+        String generator;
+        long frames;
+        long warmup;
+        double fps;
+        String sink;
+
+        public static Options parse(String... args) {
+            long width = 90;
+            long height = 45;
+            String generator = "diagonal";
+            long frames = 1000;
+            long warmup = 100;
+            double fps = 0;
+            String sink = "stdout";
+            for (String arg : args) {
+                int split = arg.indexOf('=');
+                if (!arg.startsWith("--") || split < 0) {
+                    throw new IllegalArgumentException("expected --option=value, got " + arg);
+                }
+                String value = arg.substring(split + 1);
+                switch (arg.substring(2, split)) {
+                    case "width":
+                        width = Long.parseLong(value);
+                        break;
+                    case "height":
+                        height = Long.parseLong(value);
+                        break;
+                    case "generator":
+                        generator = value;
+                        break;
+                    case "frames":
+                        frames = Long.parseLong(value);
+                        break;
+                    case "warmup":
+                        warmup = Long.parseLong(value);
+                        break;
+                    case "fps":
+                        fps = Double.parseDouble(value);
+                        break;
+                    case "sink":
+                        sink = value;
+                        break;
+                    default:
+                        throw new IllegalArgumentException("unknown option " + arg);
+                }
+            }
+            if (width < 1 || height < 1 || frames < 1 || warmup < 0 || fps < 0) {
+                throw new IllegalArgumentException("size and frames have to be positive, warm-up and fps must not be negative");
+            }
+            return new Options(width, height, generator, frames, warmup, fps, sink);
+        }
+
+        Position getDimensions() {
+            return Position.of(width - 1, height - 1);
+        }
+    }
+
+    @Value
+    public static class Report {
+        long frames;
+        long cells;
+        long bytes;
+        long nanos;
+
+        public double perSecond(long count) {
+            return count * (double) TimeUnit.SECONDS.toNanos(1) / Math.max(nanos, 1);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d frames in %.3f s: %.1f frames/s, %.0f cells/s, %.0f bytes/s",
+                    frames, nanos / 1e9, perSecond(frames), perSecond(cells), perSecond(bytes));
+        }
+    }
+
+    private final Options options;
+
+    public AnimationRunner(Options options) {
+        this.options = options;
+    }
+
+    public static void main(String... args) throws IOException {
+        Report report = new AnimationRunner(Options.parse(args)).run();
+        System.err.println(report);
+    }
+
+    public Report run() throws IOException {
+        Supplier<Board> boards = generator();
+        try (CountingOutputStream out = new CountingOutputStream(sink())) {
+            play(boards, out, options.getWarmup());
+            out.flush();
+            out.count = 0;
+            long start = System.nanoTime();
+            play(boards, out, options.getFrames());
+            out.flush();
+            long nanos = System.nanoTime() - start;
+            return new Report(options.getFrames(), options.getFrames() * options.getWidth() * options.getHeight(), out.count, nanos);
+        }
+    }
+
+    private void play(Supplier<Board> boards, OutputStream out, long frames) throws IOException {
+        Position dimensions = options.getDimensions();
+        long interval = options.getFps() > 0 ? (long) (TimeUnit.SECONDS.toNanos(1) / options.getFps()) : 0;
+        long next = System.nanoTime();
+        for (long frame = 0; frame < frames; frame++) {
+            if (interval > 0) {
+                next += interval;
+                LockSupport.parkNanos(next - System.nanoTime());
+            }
+            out.write(CLEAR);
+            out.write(RunLengthBoard.of(boards.get()).toString(dimensions).getBytes(StandardCharsets.US_ASCII));
+        }
+    }
+
+    private Supplier<Board> generator() {
+        long maxX = options.getWidth() - 1;
+        long maxY = options.getHeight() - 1;
+        switch (options.getGenerator()) {
+            case "diagonal":
+                return new BoundedDiagonalMovesProvider(maxY, maxX);
+            case "sinus":
+                return new SinusMovesSupplier(maxY);
+            case "static-sinus":
+                return new StaticSinusMovesSupplier(maxX, maxY, -0.02);
+            default:
+                throw new IllegalArgumentException("unknown generator " + options.getGenerator());
+        }
+    }
+
+    private OutputStream sink() throws IOException {
+        switch (options.getSink()) {
+            case "stdout":
+                // not closing stdout
+                return new FilterOutputStream(new BufferedOutputStream(new FileOutputStream(FileDescriptor.out), 1 << 16)) {
+                    @Override
+                    public void write(byte[] b, int off, int len) throws IOException {
+                        out.write(b, off, len);
+                    }
+
+                    @Override
+                    public void close() throws IOException {
+                        flush();
+                    }
+                };
+            case "null":
+                return new OutputStream() {
+                    @Override
+                    public void write(int b) {
+                    }
+
+                    @Override
+                    public void write(byte[] b, int off, int len) {
+                    }
+                };
+            default:
+                return new BufferedOutputStream(new FileOutputStream(options.getSink()), 1 << 16);
+        }
+    }
+
+    private static final class CountingOutputStream extends FilterOutputStream {
+        private long count;
+
+        private CountingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            count += len;
+        }
+    }
+}
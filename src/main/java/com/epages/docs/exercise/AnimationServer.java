@@ -0,0 +1,302 @@
+package com.epages.docs.exercise;
+
+import com.epages.docs.exercise.Draw.Board;
+import com.epages.docs.exercise.Draw.BoundedDiagonalMovesProvider;
+import com.epages.docs.exercise.Draw.Position;
+import com.epages.docs.exercise.Draw.SinusMovesSupplier;
+import com.epages.docs.exercise.Draw.StaticSinusMovesSupplier;
+import lombok.NonNull;
+import lombok.Value;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Serves animations to any number of viewers, e.g. {@code nc localhost 4242}.
+ *
+ * A viewer picks an animation by typing its name. Every animation is generated and rendered
+ * once per frame, no matter how many viewers it has, and the same bytes are written to all of
+ * them. All sessions are multiplexed on one selector thread. Instead of a thread per session,
+ * each session keeps only a small input buffer and a view of the frame it is currently writing.
+ * A viewer still busy with an older frame skips the new one, so slow viewers never queue up frames.
+ */
+public class AnimationServer implements Closeable {
+
+    private static final Logger LOG = LoggerFactory.getLogger(AnimationServer.class);
+
+    // move to the top left and clear the screen, for terminals connected over the network
+    private static final byte[] CLEAR = "\u001B[H\u001B[2J".getBytes(StandardCharsets.US_ASCII);
+    private static final int MAX_NAME_LENGTH = 64;
+
+    @Value
+    static class Animation {
+        @NonNull
+        String name;
+        @NonNull
+        Supplier<? extends Supplier<Board>> generator;
+        @NonNull
+        Position dimensions;
+        long frameMillis;
+    }
+
+    private final Selector selector;
+    private final ServerSocketChannel server;
+    private final Map<String, SharedAnimation> animations = new LinkedHashMap<>();
+    private final ScheduledExecutorService ticker;
+    private final Thread ioThread;
+    private final byte[] menu;
+
+    private volatile boolean running = true;
+
+    /**
+     * The animations of {@link com.epages.docs.Main}, {@code maxX} by {@code maxY} at 50 frames per second.
+     */
+    public static AnimationServer hypnoToad(int port, long maxX, long maxY) throws IOException {
+        return new AnimationServer(port, Arrays.asList(
+                new Animation("diagonal", () -> new BoundedDiagonalMovesProvider(maxY, maxX), Position.of(maxX, maxY), 20),
+                new Animation("sinus", () -> new SinusMovesSupplier(maxY), Position.of(maxX, maxY), 20),
+                new Animation("static-sinus", () -> new StaticSinusMovesSupplier(maxX, maxY, -0.02), Position.of(maxX, maxY), 20)));
+    }
+
+    AnimationServer(int port, List<Animation> animations) throws IOException {
+        for (Animation animation : animations) {
+            this.animations.put(animation.getName(), new SharedAnimation(animation));
+        }
+        this.menu = ("Animations: " + String.join(", ", this.animations.keySet()) + "\n> ").getBytes(StandardCharsets.US_ASCII);
+        this.selector = Selector.open();
+        this.server = ServerSocketChannel.open();
+        server.bind(new InetSocketAddress(port));
+        server.configureBlocking(false);
+        server.register(selector, SelectionKey.OP_ACCEPT);
+
+        this.ticker = Executors.newSingleThreadScheduledExecutor(r -> new Thread(r, "animation-ticker"));
+        this.animations.values().forEach(a -> ticker.scheduleAtFixedRate(
+                a::tick, 0, a.animation.getFrameMillis(), TimeUnit.MILLISECONDS));
+        this.ioThread = new Thread(this::serve, "animation-server");
+        ioThread.start();
+    }
+
+    public int getPort() {
+        return server.socket().getLocalPort();
+    }
+
+    @Override
+    public void close() throws IOException {
+        running = false;
+        ticker.shutdownNow();
+        selector.wakeup();
+        try {
+            ioThread.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        for (SelectionKey key : selector.keys()) {
+            key.channel().close();
+        }
+        selector.close();
+    }
+
+    private void serve() {
+        try {
+            while (running) {
+                selector.select();
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    handle(key);
+                }
+                for (SharedAnimation animation : animations.values()) {
+                    animation.publish();
+                }
+            }
+        } catch (IOException | ClosedSelectorException e) {
+            if (running) {
+                LOG.error("animation server stopped", e);
+            }
+        }
+    }
+
+    private void handle(SelectionKey key) throws IOException {
+        if (!key.isValid()) {
+            return;
+        }
+        if (key.isAcceptable()) {
+            SocketChannel channel = server.accept();
+            if (channel != null) {
+                channel.configureBlocking(false);
+                Session session = new Session(channel);
+                session.key = channel.register(selector, SelectionKey.OP_READ, session);
+                session.write(ByteBuffer.wrap(menu));
+            }
+            return;
+        }
+        Session session = (Session) key.attachment();
+        try {
+            if (key.isReadable()) {
+                session.read();
+            }
+            if (key.isValid() && key.isWritable()) {
+                session.flush();
+            }
+        } catch (IOException e) {
+            session.close();
+        }
+    }
+
+    /**
+     * One animation and its viewers. Frames are rendered on the ticker thread,
+     * the viewers are only touched by the selector thread.
+     */
+    private final class SharedAnimation {
+        private final Animation animation;
+        private final Set<Session> viewers = new HashSet<>();
+        private Supplier<Board> boards;
+
+        private volatile int viewerCount;
+        private volatile byte[] frame;
+        private byte[] published;
+
+        private SharedAnimation(Animation animation) {
+            this.animation = animation;
+        }
+
+        // nobody watching, nothing rendered
+        private void tick() {
+            if (viewerCount == 0) {
+                return;
+            }
+            // an exception would cancel the schedule, start over with a new generator instead
+            try {
+                if (boards == null) {
+                    boards = animation.getGenerator().get();
+                }
+                byte[] board = RunLengthBoard.of(boards.get()).toString(animation.getDimensions()).getBytes(StandardCharsets.US_ASCII);
+                byte[] rendered = new byte[CLEAR.length + board.length];
+                System.arraycopy(CLEAR, 0, rendered, 0, CLEAR.length);
+                System.arraycopy(board, 0, rendered, CLEAR.length, board.length);
+                frame = rendered;
+                selector.wakeup();
+            } catch (RuntimeException e) {
+                LOG.error("animation {} failed to render, restarting it", animation.getName(), e);
+                boards = null;
+            }
+        }
+
+        private void publish() {
+            byte[] current = frame;
+            if (current == published) {
+                return;
+            }
+            published = current;
+            for (Session viewer : new ArrayList<>(viewers)) {
+                viewer.offer(current);
+            }
+        }
+
+        private void join(Session session) {
+            viewers.add(session);
+            viewerCount = viewers.size();
+        }
+
+        private void leave(Session session) {
+            viewers.remove(session);
+            viewerCount = viewers.size();
+        }
+    }
+
+    private final class Session {
+        private final SocketChannel channel;
+        private final ByteBuffer input = ByteBuffer.allocate(MAX_NAME_LENGTH);
+        private SelectionKey key;
+        private SharedAnimation watching;
+        private ByteBuffer pending;
+
+        private Session(SocketChannel channel) {
+            this.channel = channel;
+        }
+
+        private void read() throws IOException {
+            if (watching != null || !input.hasRemaining()) {
+                input.clear();
+            }
+            if (channel.read(input) < 0) {
+                close();
+                return;
+            }
+            if (watching != null) {
+                return;
+            }
+            for (int i = 0; i < input.position(); i++) {
+                if (input.get(i) == '\n') {
+                    String name = new String(input.array(), 0, i, StandardCharsets.US_ASCII).trim();
+                    input.clear();
+                    SharedAnimation animation = animations.get(name);
+                    if (animation == null) {
+                        write(ByteBuffer.wrap(menu));
+                    } else {
+                        watching = animation;
+                        animation.join(this);
+                    }
+                    return;
+                }
+            }
+        }
+
+        // still writing the previous frame: skip this one
+        private void offer(byte[] frame) {
+            if (pending == null || !pending.hasRemaining()) {
+                write(ByteBuffer.wrap(frame));
+            }
+        }
+
+        private void write(ByteBuffer buffer) {
+            pending = buffer;
+            try {
+                flush();
+            } catch (IOException e) {
+                close();
+            }
+        }
+
+        private void flush() throws IOException {
+            channel.write(pending);
+            key.interestOps(pending.hasRemaining() ? SelectionKey.OP_READ | SelectionKey.OP_WRITE : SelectionKey.OP_READ);
+        }
+
+        // one broken connection must not end the selector loop of all others
+        private void close() {
+            if (watching != null) {
+                watching.leave(this);
+            }
+            key.cancel();
+            try {
+                channel.close();
+            } catch (IOException e) {
+                LOG.warn("could not close session", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,308 @@
+package com.epages.docs.exercise;
+
+import com.epages.docs.exercise.Draw.Board;
+import com.epages.docs.exercise.Draw.Position;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Push-based alternative to {@link Draw#print}, with backpressure.
+ *
+ * The interfaces mirror java.util.concurrent.Flow, which is not available on Java 8.
+ * Sinks request frames when they are ready for them, so a slow sink throttles the generator
+ * instead of letting frames pile up. The operators below decouple sinks of different speeds
+ * by dropping frames instead.
+ */
+public final class BoardFlow {
+
+    private static final Logger LOG = LoggerFactory.getLogger(BoardFlow.class);
+
+    private BoardFlow() {}
+
+    public interface Publisher<T> {
+        void subscribe(Subscriber<? super T> subscriber);
+    }
+
+    public interface Subscriber<T> {
+        void onSubscribe(Subscription subscription);
+
+        void onNext(T item);
+
+        void onError(Throwable throwable);
+
+        void onComplete();
+    }
+
+    public interface Subscription {
+        void request(long n);
+
+        void cancel();
+    }
+
+    /**
+     * Pass only every n-th item, the first one included.
+     */
+    public static <T> Publisher<T> sample(Publisher<T> upstream, long n) {
+        if (n < 1) {
+            throw new IllegalArgumentException("n must be positive, got " + n);
+        }
+        return downstream -> upstream.subscribe(new Operator<T>(downstream) {
+            private long count;
+
+            @Override
+            public void request(long k) {
+                upstream().request(k > Long.MAX_VALUE / n ? Long.MAX_VALUE : k * n);
+            }
+
+            @Override
+            public void onNext(T item) {
+                if (count++ % n == 0) {
+                    downstream.onNext(item);
+                }
+            }
+        });
+    }
+
+    /**
+     * Drop items arriving sooner than the given interval after the last passed item,
+     * every dropped item is replaced by requesting another one.
+     */
+    public static <T> Publisher<T> throttle(Publisher<T> upstream, long interval, TimeUnit unit) {
+        long intervalNanos = unit.toNanos(interval);
+        return downstream -> upstream.subscribe(new Operator<T>(downstream) {
+            private long last;
+            private boolean first = true;
+
+            @Override
+            public void onNext(T item) {
+                long now = System.nanoTime();
+                if (first || now - last >= intervalNanos) {
+                    first = false;
+                    last = now;
+                    downstream.onNext(item);
+                } else {
+                    upstream().request(1);
+                }
+            }
+        });
+    }
+
+    /**
+     * Pass every item no sooner than the given interval after the last one, waiting on the
+     * delivering thread. Nothing is dropped, the upstream is slowed down instead.
+     */
+    public static <T> Publisher<T> pace(Publisher<T> upstream, long interval, TimeUnit unit) {
+        long intervalNanos = unit.toNanos(interval);
+        return downstream -> upstream.subscribe(new Operator<T>(downstream) {
+            private long last;
+            private boolean first = true;
+
+            @Override
+            public void onNext(T item) {
+                long wait = first ? 0 : intervalNanos - (System.nanoTime() - last);
+                first = false;
+                if (wait > 0) {
+                    try {
+                        TimeUnit.NANOSECONDS.sleep(wait);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+                last = System.nanoTime();
+                downstream.onNext(item);
+            }
+        });
+    }
+
+    /**
+     * Request everything upstream and skip all frames the downstream has no demand for,
+     * it always receives the latest one. Upstream is never slowed down by this downstream.
+     */
+    public static <T> Publisher<T> latest(Publisher<T> upstream) {
+        return downstream -> upstream.subscribe(new Operator<T>(downstream) {
+            private final AtomicReference<T> latest = new AtomicReference<>();
+            private final AtomicLong demand = new AtomicLong();
+            private final AtomicInteger wip = new AtomicInteger();
+            private volatile boolean done;
+
+            @Override
+            public void onSubscribe(Subscription subscription) {
+                super.onSubscribe(subscription);
+                subscription.request(Long.MAX_VALUE);
+            }
+
+            @Override
+            public void request(long n) {
+                demand.getAndUpdate(d -> d + n < 0 ? Long.MAX_VALUE : d + n);
+                drain();
+            }
+
+            @Override
+            public void onNext(T item) {
+                latest.set(item);
+                drain();
+            }
+
+            @Override
+            public void onComplete() {
+                done = true;
+                drain();
+            }
+
+            private void drain() {
+                if (wip.getAndIncrement() != 0) {
+                    return;
+                }
+                do {
+                    while (demand.get() > 0) {
+                        T item = latest.getAndSet(null);
+                        if (item == null) {
+                            break;
+                        }
+                        demand.decrementAndGet();
+                        downstream.onNext(item);
+                    }
+                    if (done && latest.get() == null) {
+                        downstream.onComplete();
+                        return;
+                    }
+                } while (wip.decrementAndGet() != 0);
+            }
+        });
+    }
+
+    /**
+     * Sink printing one board after the other, requesting the next one when done with the last.
+     * Same output as {@link Draw#print}, but without its pause between frames, see {@link #pace}.
+     */
+    public static Subscriber<Board> printTo(PrintStream out, @Nullable Position dimensions) {
+        return new Subscriber<Board>() {
+            private Subscription subscription;
+
+            @Override
+            public void onSubscribe(Subscription subscription) {
+                this.subscription = subscription;
+                subscription.request(1);
+            }
+
+            @Override
+            public void onNext(Board board) {
+                Draw.clear(out);
+                out.println(board.toString(dimensions));
+                // a PrintStream swallows its IOExceptions, the stream is broken, nothing more can be printed
+                if (out.checkError()) {
+                    subscription.cancel();
+                    onError(new IOException("printing to the stream failed"));
+                    return;
+                }
+                subscription.request(1);
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+                LOG.error("printing boards failed", throwable);
+            }
+
+            @Override
+            public void onComplete() {
+                out.flush();
+            }
+        };
+    }
+
+    /**
+     * Like {@link #printTo(PrintStream, Position)}, but sinks printing the same boards share their renderings.
+     */
+    public static Subscriber<Board> printTo(PrintStream out, @Nullable Position dimensions, FrameCache frames) {
+        return new Subscriber<Board>() {
+            private Subscription subscription;
+
+            @Override
+            public void onSubscribe(Subscription subscription) {
+                this.subscription = subscription;
+                subscription.request(1);
+            }
+
+            @Override
+            public void onNext(Board board) {
+                Draw.clear(out);
+                try (FrameCache.Frame frame = frames.acquire(board, dimensions)) {
+                    frame.writeTo(out);
+                } catch (IOException e) {
+                    subscription.cancel();
+                    onError(e);
+                    return;
+                }
+                out.println();
+                // a PrintStream swallows its IOExceptions
+                if (out.checkError()) {
+                    subscription.cancel();
+                    onError(new IOException("printing to the stream failed"));
+                    return;
+                }
+                subscription.request(1);
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+                LOG.error("printing boards failed", throwable);
+            }
+
+            @Override
+            public void onComplete() {
+                out.flush();
+            }
+        };
+    }
+
+    /**
+     * Subscriber to the upstream and subscription of the downstream at once,
+     * passing everything through unless overridden.
+     */
+    private abstract static class Operator<T> implements Subscriber<T>, Subscription {
+        protected final Subscriber<? super T> downstream;
+        private Subscription upstream;
+
+        Operator(Subscriber<? super T> downstream) {
+            this.downstream = downstream;
+        }
+
+        Subscription upstream() {
+            return upstream;
+        }
+
+        @Override
+        public void onSubscribe(Subscription subscription) {
+            this.upstream = subscription;
+            downstream.onSubscribe(this);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            downstream.onError(throwable);
+        }
+
+        @Override
+        public void onComplete() {
+            downstream.onComplete();
+        }
+
+        @Override
+        public void request(long n) {
+            upstream.request(n);
+        }
+
+        @Override
+        public void cancel() {
+            upstream.cancel();
+        }
+    }
+}
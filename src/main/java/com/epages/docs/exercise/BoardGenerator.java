@@ -0,0 +1,127 @@
+package com.epages.docs.exercise;
+
+import java.nio.charset.StandardCharsets;
+import java.util.stream.LongStream;
+
+/**
+ * Generates square boards in the format of {@link Draw#generateBoard()}, for any size and any cells.
+ *
+ * Every row has the same width, so the position of each row in the output is known upfront.
+ * Rows are generated in parallel, each one writing straight into its own slice of the output,
+ * which makes merging partial results unnecessary. Small boards can be generated sequentially.
+ */
+public class BoardGenerator {
+
+    /**
+     * Decides which cells of the board are set.
+     */
+    @FunctionalInterface
+    public interface Cells {
+        boolean isSet(long x, long y);
+    }
+
+    private static final byte SET = 'x';
+    private static final byte BLANK = '-';
+
+    private final long size;
+    private final Cells cells;
+
+    // one blank row, copied into the output before the set cells are written
+    private final byte[] blankRow;
+
+    public BoardGenerator(long size, Cells cells) {
+        if (size < 0 || rowWidth(size) > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("invalid board size " + size);
+        }
+        this.size = size;
+        this.cells = cells;
+        this.blankRow = new byte[(int) rowWidth(size)];
+        for (int i = 0; i + 1 < blankRow.length; i += 2) {
+            blankRow[i] = BLANK;
+            blankRow[i + 1] = ' ';
+        }
+        blankRow[blankRow.length - 1] = '\n';
+    }
+
+    public static Cells diagonals(long size) {
+        return (x, y) -> x == y || x + y == size - 1;
+    }
+
+    public static Cells sinus(long size) {
+        return (x, y) -> y == Draw.sinY(x, size - 1);
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    /**
+     * Number of bytes of one row, including the line break.
+     */
+    public int getRowWidth() {
+        return blankRow.length;
+    }
+
+    /**
+     * Generate the whole board, which has to fit into a single array.
+     */
+    public byte[] generate() {
+        long length = size * blankRow.length;
+        if (length > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("board of size " + size + " does not fit into an array, generate it in slices of rows");
+        }
+        byte[] board = new byte[(int) length];
+        generate(0, size, board, 0);
+        return board;
+    }
+
+    /**
+     * Generate the rows [fromRow, toRow) into the target, starting at the given offset.
+     * Boards too large for one array can be generated slice by slice this way.
+     */
+    public void generate(long fromRow, long toRow, byte[] target, int offset) {
+        checkRows(fromRow, toRow, target, offset);
+        // the spliterator of a range splits it in two halves of equal size
+        LongStream.range(fromRow, toRow)
+                .parallel()
+                .forEach(y -> writeRow(y, target, offset + (int) ((y - fromRow) * blankRow.length)));
+    }
+
+    /**
+     * Like {@link #generate(long, long, byte[], int)}, but on the calling thread only.
+     * For small boards, where starting the common pool and the stream pipeline costs more than the rows.
+     */
+    public void generateSequentially(long fromRow, long toRow, byte[] target, int offset) {
+        checkRows(fromRow, toRow, target, offset);
+        for (long y = fromRow; y < toRow; y++) {
+            writeRow(y, target, offset + (int) ((y - fromRow) * blankRow.length));
+        }
+    }
+
+    @Override
+    public String toString() {
+        return new String(generate(), StandardCharsets.US_ASCII);
+    }
+
+    private void checkRows(long fromRow, long toRow, byte[] target, int offset) {
+        if (fromRow < 0 || toRow > size || fromRow > toRow) {
+            throw new IndexOutOfBoundsException("rows [" + fromRow + ", " + toRow + ") of " + size);
+        }
+        if (offset < 0 || offset + (toRow - fromRow) * blankRow.length > target.length) {
+            throw new IndexOutOfBoundsException("target too small for rows [" + fromRow + ", " + toRow + ")");
+        }
+    }
+
+    private void writeRow(long y, byte[] target, int offset) {
+        System.arraycopy(blankRow, 0, target, offset, blankRow.length);
+        for (long x = 0; x < size; x++) {
+            if (cells.isSet(x, y)) {
+                target[offset + 2 * (int) x] = SET;
+            }
+        }
+    }
+
+    private static long rowWidth(long size) {
+        return 2 * size + 1;
+    }
+}
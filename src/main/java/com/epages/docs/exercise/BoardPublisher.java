@@ -0,0 +1,185 @@
+package com.epages.docs.exercise;
+
+import com.epages.docs.exercise.BoardFlow.Publisher;
+import com.epages.docs.exercise.BoardFlow.Subscriber;
+import com.epages.docs.exercise.BoardFlow.Subscription;
+import com.epages.docs.exercise.Draw.Board;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Publishes the boards of one generator to any number of subscribers.
+ *
+ * Nothing is generated before the given number of subscribers has subscribed. From then on,
+ * a new board is generated once every subscriber has requested one, so the slowest subscriber
+ * sets the pace. Subscribers joining later start with the next generated board, earlier boards
+ * are not replayed. Each board is copied once and shared by all subscribers, since the suppliers
+ * in {@link Draw} may keep modifying the board they returned.
+ * Boards are generated and delivered on the given executor. A failing generator terminates
+ * all subscribers with its exception.
+ */
+public class BoardPublisher implements Publisher<Board> {
+
+    private final Supplier<Board> generator;
+    private final long max;
+    private final int subscribers;
+    private final Executor executor;
+    private final boolean ownsExecutor;
+
+    private final List<BoardSubscription> subscriptions = new CopyOnWriteArrayList<>();
+    private final AtomicInteger wip = new AtomicInteger();
+    // only touched by drain, which never runs concurrently
+    private long published;
+    private boolean started;
+    private Throwable error;
+
+    /**
+     * @param max number of boards to publish before completing, negative for no limit
+     * @param subscribers number of subscribers to wait for before generating the first board
+     */
+    public BoardPublisher(Supplier<Board> generator, long max, int subscribers, Executor executor) {
+        this(generator, max, subscribers, executor, false);
+    }
+
+    /**
+     * Publishes on a thread of its own, which ends when the publisher completes or fails.
+     */
+    public BoardPublisher(Supplier<Board> generator, long max, int subscribers) {
+        this(generator, max, subscribers, Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "board-publisher");
+            thread.setDaemon(true);
+            return thread;
+        }), true);
+    }
+
+    public BoardPublisher(Supplier<Board> generator, long max) {
+        this(generator, max, 1);
+    }
+
+    private BoardPublisher(Supplier<Board> generator, long max, int subscribers, Executor executor, boolean ownsExecutor) {
+        this.generator = generator;
+        this.max = max;
+        this.subscribers = subscribers;
+        this.executor = executor;
+        this.ownsExecutor = ownsExecutor;
+    }
+
+    @Override
+    public void subscribe(Subscriber<? super Board> subscriber) {
+        BoardSubscription subscription = new BoardSubscription(subscriber);
+        subscriptions.add(subscription);
+        subscriber.onSubscribe(subscription);
+        schedule();
+    }
+
+    private void schedule() {
+        if (wip.getAndIncrement() == 0) {
+            try {
+                executor.execute(this::drain);
+            } catch (RejectedExecutionException e) {
+                // our own executor is shut down once terminated, only terminal signals are left to deliver
+                drain();
+            }
+        }
+    }
+
+    private void drain() {
+        do {
+            BoardSubscription[] current = subscriptions.toArray(new BoardSubscription[0]);
+            started |= current.length >= subscribers;
+            while (started && error == null && !isCompleted() && hasDemand(current)) {
+                Board board;
+                try {
+                    board = generator.get().copy();
+                } catch (RuntimeException e) {
+                    error = e;
+                    break;
+                }
+                published++;
+                for (BoardSubscription subscription : current) {
+                    subscription.demand.decrementAndGet();
+                    subscription.deliver(board);
+                }
+                current = subscriptions.toArray(new BoardSubscription[0]);
+            }
+            if (error != null || isCompleted()) {
+                for (BoardSubscription subscription : current) {
+                    subscription.terminate(error);
+                }
+                if (ownsExecutor) {
+                    ((ExecutorService) executor).shutdown();
+                }
+            }
+        } while (wip.decrementAndGet() != 0);
+    }
+
+    private static boolean hasDemand(BoardSubscription[] subscriptions) {
+        if (subscriptions.length == 0) {
+            return false;
+        }
+        for (BoardSubscription subscription : subscriptions) {
+            if (subscription.demand.get() <= 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean isCompleted() {
+        return max >= 0 && published >= max;
+    }
+
+    private final class BoardSubscription implements Subscription {
+        private final Subscriber<? super Board> subscriber;
+        private final AtomicLong demand = new AtomicLong();
+
+        private BoardSubscription(Subscriber<? super Board> subscriber) {
+            this.subscriber = subscriber;
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                cancel();
+                subscriber.onError(new IllegalArgumentException("non-positive request " + n));
+                return;
+            }
+            demand.getAndUpdate(d -> d + n < 0 ? Long.MAX_VALUE : d + n);
+            schedule();
+        }
+
+        @Override
+        public void cancel() {
+            if (subscriptions.remove(this)) {
+                schedule();
+            }
+        }
+
+        private void deliver(Board board) {
+            try {
+                subscriber.onNext(board);
+            } catch (RuntimeException e) {
+                cancel();
+                subscriber.onError(e);
+            }
+        }
+
+        private void terminate(Throwable error) {
+            if (subscriptions.remove(this)) {
+                if (error == null) {
+                    subscriber.onComplete();
+                } else {
+                    subscriber.onError(error);
+                }
+            }
+        }
+    }
+}
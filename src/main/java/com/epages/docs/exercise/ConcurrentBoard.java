@@ -0,0 +1,176 @@
+package com.epages.docs.exercise;
+
+import com.epages.docs.exercise.Draw.Board;
+import com.epages.docs.exercise.Draw.Canvas;
+import com.epages.docs.exercise.Draw.Point;
+import com.epages.docs.exercise.Draw.Position;
+import lombok.RequiredArgsConstructor;
+
+import javax.annotation.Nullable;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Canvas of fixed dimensions that any number of movers can draw on at the same time,
+ * see {@link Draw.BoundedDiagonalMovesProvider#drawOn}.
+ *
+ * Points are bits in an {@link AtomicLongArray}, each set by a compare-and-set on its own word,
+ * so writers neither lock nor wait for each other, and a point already drawn costs a plain read.
+ * New points are counted when they start and when they are done, like a seqlock shared by all
+ * writers: {@link #snapshot} copies the words while no point is in flight and retries if one started
+ * meanwhile, so it never shows a point without all points drawn before it. After a few failed
+ * attempts new points wait until the snapshot is done, so a busy board cannot starve it.
+ * Versions are handed out per snapshot instead of per point: a snapshot reuses the version of the
+ * previous one as long as nothing was drawn in between.
+ */
+final class ConcurrentBoard implements Canvas {
+
+    private static final int OPTIMISTIC_SNAPSHOTS = 16;
+
+    private final Position dimensions;
+    private final long width;
+    private final AtomicLongArray bits;
+    private final AtomicReference<Snapshot> last;
+    // points started and done, equal while none is in flight
+    private final AtomicLong started = new AtomicLong();
+    private final AtomicLong completed = new AtomicLong();
+    private final AtomicInteger waiting = new AtomicInteger();
+
+    ConcurrentBoard(Position dimensions) {
+        this.dimensions = dimensions;
+        this.width = dimensions.getX() + 1;
+        long cells = width * (dimensions.getY() + 1);
+        if (cells > (long) Integer.MAX_VALUE * Long.SIZE) {
+            throw new IllegalArgumentException("board too large: " + dimensions.getX() + "x" + dimensions.getY());
+        }
+        this.bits = new AtomicLongArray((int) ((cells + Long.SIZE - 1) / Long.SIZE));
+        this.last = new AtomicReference<>(new Snapshot(new long[bits.length()], Board.nextVersion()));
+    }
+
+    @Override
+    public void draw(long x, long y) {
+        put(x, y);
+    }
+
+    /**
+     * @return whether the point is new
+     */
+    boolean put(long x, long y) {
+        long index = index(x, y);
+        int word = (int) (index >>> 6);
+        long mask = 1L << index;
+        if ((bits.get(word) & mask) != 0) {
+            return false;
+        }
+        while (waiting.get() > 0) {
+            Thread.yield();
+        }
+        started.incrementAndGet();
+        try {
+            long bits;
+            do {
+                bits = this.bits.get(word);
+                if ((bits & mask) != 0) {
+                    return false;
+                }
+            } while (!this.bits.compareAndSet(word, bits, bits | mask));
+            return true;
+        } finally {
+            completed.incrementAndGet();
+        }
+    }
+
+    boolean contains(long x, long y) {
+        if (x < 0 || x > dimensions.getX() || y < 0 || y > dimensions.getY()) {
+            return false;
+        }
+        long index = index(x, y);
+        return (bits.get((int) (index >>> 6)) & (1L << index)) != 0;
+    }
+
+    Position getDimensions() {
+        return dimensions;
+    }
+
+    /**
+     * All points drawn so far, as a plain board.
+     */
+    Board snapshot() {
+        long[] words = new long[bits.length()];
+        int attempt = 0;
+        try {
+            while (!copy(words)) {
+                if (++attempt == OPTIMISTIC_SNAPSHOTS) {
+                    waiting.incrementAndGet();
+                }
+                Thread.yield();
+            }
+        } finally {
+            if (attempt >= OPTIMISTIC_SNAPSHOTS) {
+                waiting.decrementAndGet();
+            }
+        }
+        Snapshot previous = last.get();
+        long version;
+        if (Arrays.equals(words, previous.words)) {
+            version = previous.version;
+        } else {
+            version = Board.nextVersion();
+            // a concurrent snapshot may have won, then the next one gets a new version again
+            last.compareAndSet(previous, new Snapshot(words, version));
+        }
+
+        Map<Position, Point> points = new HashMap<>();
+        for (int word = 0; word < words.length; word++) {
+            long bits = words[word];
+            while (bits != 0) {
+                long index = (long) word * Long.SIZE + Long.numberOfTrailingZeros(bits);
+                points.put(Position.of(index % width, index / width), Point.X);
+                bits &= bits - 1;
+            }
+        }
+        return new Board(points, version);
+    }
+
+    /**
+     * Copies the words if no point was in flight before or during the copy.
+     */
+    private boolean copy(long[] words) {
+        // started is never less than completed, so equal counts mean every started point is done
+        long stamp = completed.get();
+        if (started.get() != stamp) {
+            return false;
+        }
+        for (int word = 0; word < words.length; word++) {
+            words[word] = bits.get(word);
+        }
+        return started.get() == stamp;
+    }
+
+    String toString(@Nullable Position dimensions) {
+        return snapshot().toString(dimensions == null ? this.dimensions : dimensions);
+    }
+
+    @Override
+    public String toString() {
+        return toString(dimensions);
+    }
+
+    private long index(long x, long y) {
+        if (x < 0 || x > dimensions.getX() || y < 0 || y > dimensions.getY()) {
+            throw new IndexOutOfBoundsException("(" + x + ", " + y + ") outside of " + dimensions.getX() + "x" + dimensions.getY());
+        }
+        return y * width + x;
+    }
+
+    @RequiredArgsConstructor
+    private static final class Snapshot {
+        private final long[] words;
+        private final long version;
+    }
+}
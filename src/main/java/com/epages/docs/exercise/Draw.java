@@ -1,7 +1,5 @@
 package com.epages.docs.exercise;
 
-import com.google.common.base.Strings;
-import lombok.AllArgsConstructor;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -9,13 +7,17 @@ import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
 
 import javax.annotation.Nullable;
+import java.io.PrintStream;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Supplier;
 import java.util.stream.LongStream;
 
-import static com.google.common.collect.Maps.newHashMap;
-
 /**
  * Another exercise. Solve Lombok and OptionalStream first.
  *
@@ -64,21 +66,41 @@ public class Draw {
         }
     }
 
-    private enum Point {
+    enum Point {
         X
     }
 
 
     @NoArgsConstructor
-    @AllArgsConstructor
     static class Board {
         private static String BLANK = " ";
+        private static final AtomicLong VERSIONS = new AtomicLong();
 
         @NonNull
-        private Map<Position, Point> map = newHashMap();
+        private Map<Position, Point> map = new HashMap<>();
+
+        /**
+         * Changes whenever a point is added, unique across all boards.
+         * Copies share the version until one of them changes.
+         */
+        @Getter
+        private long version = nextVersion();
+
+        static long nextVersion() {
+            return VERSIONS.incrementAndGet();
+        }
+
+        Board(@NonNull Map<Position, Point> map, long version) {
+            this.map = map;
+            this.version = version;
+        }
 
         Point put(Position pos) {
-            return map.put(pos, Point.X);
+            Point previous = map.put(pos, Point.X);
+            if (previous == null) {
+                version = nextVersion();
+            }
+            return previous;
         }
 
         Point put(long x, long y) {
@@ -89,6 +111,10 @@ public class Draw {
             return Optional.ofNullable(map.get(Position.of(x,y)));
         }
 
+        Set<Position> positions() {
+            return Collections.unmodifiableSet(map.keySet());
+        }
+
         /**
          * TODO: Return the maximum x and y dimensions of the board.
          */
@@ -97,7 +123,7 @@ public class Draw {
         }
 
         Board copy() {
-            return new Board(newHashMap(this.map));
+            return new Board(new HashMap<>(this.map), version);
         }
 
         String toString(@Nullable Position dimensions) {
@@ -121,6 +147,13 @@ public class Draw {
         }
     }
 
+    /**
+     * Anything movers can draw on besides a {@link Board}, see {@link ConcurrentBoard}.
+     */
+    interface Canvas {
+        void draw(long x, long y);
+    }
+
     /**
      * TODO: Print the stream of Boards using the given dimensions argument.
      * Before printing reset the screen using 'reset()'.
@@ -143,9 +176,31 @@ public class Draw {
         private final long maxY;
         private final long maxX;
 
+        /**
+         * Moves starting at x/y.
+         */
+        BoundedDiagonalMovesProvider(long maxY, long maxX, long x, long y) {
+            this(maxY, maxX);
+            this.x = x;
+            this.y = y;
+        }
+
         @Override
         public Board get() {
             board.put(x,y);
+            move();
+            return board;
+        }
+
+        /**
+         * Draws the next point on the given canvas instead of the own board.
+         */
+        void drawOn(Canvas canvas) {
+            canvas.draw(x, y);
+            move();
+        }
+
+        private void move() {
             x += dx;
             y += dy;
             if (x >= maxX || x <= 0) {
@@ -154,7 +209,6 @@ public class Draw {
             if (y >= maxY || y <= 0) {
                 dy *= -1;
             }
-            return board;
         }
     }
 
@@ -208,11 +262,11 @@ public class Draw {
         }
     }
 
-    private static long sinY(long x, long maxY) {
+    static long sinY(long x, long maxY) {
         return sinY(x, maxY, 5.0);
     }
 
-    private static long sinY(long x, long maxY, double trans) {
+    static long sinY(long x, long maxY, double trans) {
         double yp = Math.sin(x * (trans/maxY));
         yp += 1;
         yp = yp * (maxY / 2.0);
@@ -229,8 +283,25 @@ public class Draw {
      * Clears the screen.
      */
     private static void clear() {
-//        System.out.println("\u001B[2J"); // only with consoles with ANSI support
-        System.out.println(Strings.repeat("\n", 100));
+        clear(System.out);
+    }
+
+    static void clear(PrintStream out) {
+//        out.println("\u001B[2J"); // only with consoles with ANSI support
+        out.println(Blank.LINES);
+    }
+
+    /**
+     * Only built when the screen is cleared the first time, rendering alone does not need it.
+     */
+    private static final class Blank {
+        private static final String LINES = blankLines(100);
+
+        private static String blankLines(int count) {
+            char[] lines = new char[count];
+            Arrays.fill(lines, '\n');
+            return new String(lines);
+        }
     }
 
     /**
@@ -244,7 +315,7 @@ public class Draw {
         }
     }
 
-    private static void reset() {
+    static void reset() {
         sleep();
         clear();
     }
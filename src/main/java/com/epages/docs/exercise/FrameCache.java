@@ -0,0 +1,152 @@
+package com.epages.docs.exercise;
+
+import com.epages.docs.exercise.Draw.Board;
+import com.epages.docs.exercise.Draw.Position;
+import lombok.Value;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Rendered boards, keyed by board version and dimensions.
+ *
+ * Viewers showing the same board at the same dimensions share one rendering: the first one
+ * to {@link #acquire} a frame renders it, the others wait for it and get the same bytes.
+ * The cache holds at most {@code maxBytes} of frames, evicting the least recently used ones,
+ * but never a frame that is still acquired. Every acquirer gets a handle of its own, which has to be
+ * {@link Frame#close closed}, closing it again does nothing. Without dimensions, boards are rendered
+ * up to their largest point.
+ */
+public final class FrameCache {
+
+    private final long maxBytes;
+    private final Map<Key, Rendering> frames = new LinkedHashMap<>(16, 0.75f, true);
+    private long bytes;
+
+    public FrameCache(long maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+
+    Frame acquire(Board board, @Nullable Position dimensions) {
+        Key key = new Key(board.getVersion(), dimensions);
+        Rendering rendering;
+        synchronized (this) {
+            rendering = frames.computeIfAbsent(key, Rendering::new);
+            rendering.references++;
+        }
+        Frame frame = new Frame(rendering);
+        try {
+            rendering.render(board);
+        } catch (RuntimeException e) {
+            frame.close();
+            throw e;
+        }
+        return frame;
+    }
+
+    public synchronized long size() {
+        return bytes;
+    }
+
+    public synchronized int frames() {
+        return frames.size();
+    }
+
+    /**
+     * Boards are sparse, so they are rendered run-length encoded, filling the blank frame in bulk.
+     */
+    private static String toString(Board board, @Nullable Position dimensions) {
+        RunLengthBoard runs = RunLengthBoard.of(board);
+        return runs.toString(dimensions == null ? runs.bounds() : dimensions);
+    }
+
+    private synchronized void rendered(Rendering rendering) {
+        bytes += rendering.bytes.length;
+        evict();
+    }
+
+    private synchronized void release(Rendering rendering) {
+        if (--rendering.references == 0) {
+            evict();
+        }
+    }
+
+    private void evict() {
+        Iterator<Rendering> eldest = frames.values().iterator();
+        while (bytes > maxBytes && eldest.hasNext()) {
+            Rendering rendering = eldest.next();
+            if (rendering.references == 0) {
+                eldest.remove();
+                bytes -= rendering.bytes == null ? 0 : rendering.bytes.length;
+            }
+        }
+    }
+
+    @Value
+    private static class Key {
+        long version;
+        @Nullable
+        Position dimensions;
+    }
+
+    /**
+     * One viewer's handle on a rendered board.
+     */
+    public final class Frame implements AutoCloseable {
+        private final Rendering rendering;
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        private Frame(Rendering rendering) {
+            this.rendering = rendering;
+        }
+
+        /**
+         * The shared bytes, not to be modified.
+         */
+        byte[] getBytes() {
+            return rendering.bytes;
+        }
+
+        public void writeTo(OutputStream out) throws IOException {
+            out.write(rendering.bytes);
+        }
+
+        @Override
+        public void close() {
+            if (closed.compareAndSet(false, true)) {
+                release(rendering);
+            }
+        }
+    }
+
+    /**
+     * A rendered board, shared until every viewer closed its frame.
+     */
+    private final class Rendering {
+        private final Key key;
+        // guarded by the cache
+        private int references;
+        private volatile byte[] bytes;
+
+        private Rendering(Key key) {
+            this.key = key;
+        }
+
+        private void render(Board board) {
+            if (bytes == null) {
+                synchronized (this) {
+                    if (bytes == null) {
+                        bytes = FrameCache.toString(board, key.dimensions).getBytes(StandardCharsets.US_ASCII);
+                        rendered(this);
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,267 @@
+package com.epages.docs.exercise;
+
+import com.epages.docs.exercise.Draw.Board;
+import com.epages.docs.exercise.Draw.Position;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * Immutable board storing every row as runs of points, for huge canvases with few points.
+ *
+ * Only rows with points are stored, each as sorted, disjoint start/end pairs (end exclusive),
+ * so memory grows with the number of runs instead of the canvas or the number of points.
+ * A diagonal is one run per row, a flat stretch of a sine curve one run in total.
+ * Copies are free, and union and intersection merge the runs row by row.
+ *
+ * So far only rendering uses it: the animations convert each board right before printing it.
+ * The suppliers in {@link Draw} still keep and copy map-backed {@link Board}s, since those are
+ * what the exercise hands out.
+ */
+final class RunLengthBoard {
+
+    static final RunLengthBoard EMPTY = new RunLengthBoard(new long[0], new long[0][]);
+
+    @FunctionalInterface
+    interface PointConsumer {
+        void accept(long x, long y);
+    }
+
+    // sorted y of the rows with points
+    private final long[] rows;
+    // per row: start, end, start, end...
+    private final long[][] runs;
+
+    private RunLengthBoard(long[] rows, long[][] runs) {
+        this.rows = rows;
+        this.runs = runs;
+    }
+
+    static RunLengthBoard of(Board board) {
+        return of(board.positions());
+    }
+
+    static RunLengthBoard of(Collection<Position> positions) {
+        Position[] sorted = positions.toArray(new Position[0]);
+        Arrays.sort(sorted, (a, b) -> a.getY() != b.getY() ? Long.compare(a.getY(), b.getY()) : Long.compare(a.getX(), b.getX()));
+
+        long[] rows = new long[sorted.length];
+        long[][] runs = new long[sorted.length][];
+        long[] row = new long[2 * sorted.length];
+        int rowCount = 0;
+        for (int i = 0; i < sorted.length; ) {
+            long y = sorted[i].getY();
+            int length = 0;
+            for (; i < sorted.length && sorted[i].getY() == y; i++) {
+                long x = sorted[i].getX();
+                if (length > 0 && row[length - 1] >= x) {
+                    // duplicate or adjacent point extends the last run
+                    row[length - 1] = Math.max(row[length - 1], x + 1);
+                } else {
+                    row[length++] = x;
+                    row[length++] = x + 1;
+                }
+            }
+            rows[rowCount] = y;
+            runs[rowCount++] = Arrays.copyOf(row, length);
+        }
+        return new RunLengthBoard(Arrays.copyOf(rows, rowCount), Arrays.copyOf(runs, rowCount));
+    }
+
+    boolean contains(long x, long y) {
+        int row = Arrays.binarySearch(rows, y);
+        if (row < 0) {
+            return false;
+        }
+        long[] runs = this.runs[row];
+        // an odd insertion point lies between a start and its end
+        int found = Arrays.binarySearch(runs, x);
+        return found >= 0 ? found % 2 == 0 : (-found - 1) % 2 == 1;
+    }
+
+    long cardinality() {
+        long cardinality = 0;
+        for (long[] row : runs) {
+            for (int i = 0; i < row.length; i += 2) {
+                cardinality += row[i + 1] - row[i];
+            }
+        }
+        return cardinality;
+    }
+
+    int runCount() {
+        int count = 0;
+        for (long[] row : runs) {
+            count += row.length / 2;
+        }
+        return count;
+    }
+
+    /**
+     * The maximum x and y of all points, at least 0, so {@link #toString(Position)} shows all points
+     * with non-negative coordinates.
+     */
+    Position bounds() {
+        long maxX = 0;
+        for (long[] row : runs) {
+            maxX = Math.max(maxX, row[row.length - 1] - 1);
+        }
+        return Position.of(maxX, rows.length == 0 ? 0 : Math.max(0, rows[rows.length - 1]));
+    }
+
+    void forEach(PointConsumer consumer) {
+        for (int r = 0; r < rows.length; r++) {
+            long[] row = runs[r];
+            for (int i = 0; i < row.length; i += 2) {
+                for (long x = row[i]; x < row[i + 1]; x++) {
+                    consumer.accept(x, rows[r]);
+                }
+            }
+        }
+    }
+
+    Board toBoard() {
+        Board board = new Board();
+        forEach(board::put);
+        return board;
+    }
+
+    RunLengthBoard union(RunLengthBoard other) {
+        long[] rows = new long[this.rows.length + other.rows.length];
+        long[][] runs = new long[rows.length][];
+        int count = 0;
+        int i = 0;
+        int j = 0;
+        while (i < this.rows.length || j < other.rows.length) {
+            if (j == other.rows.length || i < this.rows.length && this.rows[i] < other.rows[j]) {
+                rows[count] = this.rows[i];
+                runs[count++] = this.runs[i++];
+            } else if (i == this.rows.length || other.rows[j] < this.rows[i]) {
+                rows[count] = other.rows[j];
+                runs[count++] = other.runs[j++];
+            } else {
+                rows[count] = this.rows[i];
+                runs[count++] = union(this.runs[i++], other.runs[j++]);
+            }
+        }
+        return new RunLengthBoard(Arrays.copyOf(rows, count), Arrays.copyOf(runs, count));
+    }
+
+    RunLengthBoard intersection(RunLengthBoard other) {
+        int size = Math.min(this.rows.length, other.rows.length);
+        long[] rows = new long[size];
+        long[][] runs = new long[size][];
+        int count = 0;
+        int i = 0;
+        int j = 0;
+        while (i < this.rows.length && j < other.rows.length) {
+            if (this.rows[i] < other.rows[j]) {
+                i++;
+            } else if (other.rows[j] < this.rows[i]) {
+                j++;
+            } else {
+                long[] row = intersection(this.runs[i], other.runs[j]);
+                if (row.length > 0) {
+                    rows[count] = this.rows[i];
+                    runs[count++] = row;
+                }
+                i++;
+                j++;
+            }
+        }
+        return new RunLengthBoard(Arrays.copyOf(rows, count), Arrays.copyOf(runs, count));
+    }
+
+    private static long[] union(long[] a, long[] b) {
+        long[] merged = new long[a.length + b.length];
+        int length = 0;
+        int i = 0;
+        int j = 0;
+        while (i < a.length || j < b.length) {
+            long[] next;
+            int at;
+            if (j == b.length || i < a.length && a[i] <= b[j]) {
+                next = a;
+                at = i;
+                i += 2;
+            } else {
+                next = b;
+                at = j;
+                j += 2;
+            }
+            if (length > 0 && merged[length - 1] >= next[at]) {
+                merged[length - 1] = Math.max(merged[length - 1], next[at + 1]);
+            } else {
+                merged[length++] = next[at];
+                merged[length++] = next[at + 1];
+            }
+        }
+        return Arrays.copyOf(merged, length);
+    }
+
+    private static long[] intersection(long[] a, long[] b) {
+        long[] common = new long[a.length + b.length];
+        int length = 0;
+        int i = 0;
+        int j = 0;
+        while (i < a.length && j < b.length) {
+            long start = Math.max(a[i], b[j]);
+            long end = Math.min(a[i + 1], b[j + 1]);
+            if (start < end) {
+                common[length++] = start;
+                common[length++] = end;
+            }
+            if (a[i + 1] < b[j + 1]) {
+                i += 2;
+            } else {
+                j += 2;
+            }
+        }
+        return Arrays.copyOf(common, length);
+    }
+
+    /**
+     * Same output as {@link Board#toString(Position)}. The blank frame is filled in bulk,
+     * only points within runs are written.
+     */
+    String toString(Position dimensions) {
+        int width = Math.toIntExact(2 * (dimensions.getX() + 1) + 1);
+        int height = Math.toIntExact(dimensions.getY() + 1);
+        char[] frame = new char[Math.multiplyExact(width, height)];
+        Arrays.fill(frame, ' ');
+        for (int y = 0; y < height; y++) {
+            frame[y * width + width - 1] = '\n';
+        }
+        for (int r = 0; r < rows.length && rows[r] < height; r++) {
+            if (rows[r] < 0) {
+                continue;
+            }
+            long[] row = runs[r];
+            int offset = (int) rows[r] * width;
+            for (int i = 0; i < row.length && row[i] <= dimensions.getX(); i += 2) {
+                long end = Math.min(row[i + 1], dimensions.getX() + 1);
+                for (long x = Math.max(row[i], 0); x < end; x++) {
+                    frame[offset + 2 * (int) x] = 'X';
+                }
+            }
+        }
+        return new String(frame);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof RunLengthBoard)) {
+            return false;
+        }
+        RunLengthBoard that = (RunLengthBoard) o;
+        return Arrays.equals(rows, that.rows) && Arrays.deepEquals(runs, that.runs);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Arrays.hashCode(rows) + Arrays.deepHashCode(runs);
+    }
+}
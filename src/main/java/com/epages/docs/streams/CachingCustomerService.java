@@ -0,0 +1,142 @@
+package com.epages.docs.streams;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import com.neovisionaries.i18n.CurrencyCode;
+
+import lombok.Value;
+
+/**
+ * Size-bounded result cache in front of a {@link CustomerService}.
+ *
+ * Results are keyed by query method and argument. Replacing a customer only invalidates
+ * the entries that could contain that customer's orders: its own orders by status and the
+ * paid orders of every currency it has paid orders in, before or after the change.
+ */
+class CachingCustomerService {
+
+    private final Cache<Query, Object> cache;
+
+    // queries share the read lock, replacing a customer takes the write lock,
+    // so no result of the old customers can be cached after it was invalidated
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private volatile CustomerService service;
+
+    CachingCustomerService(CustomerService service, long maximumSize) {
+        this.service = service;
+        this.cache = CacheBuilder.newBuilder()
+                .maximumSize(maximumSize)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Get a customer's orders by paymentStatus status.
+     */
+    public Map<Order.PaymentStatus, List<Order>> getOrdersByStatus(String customerName) {
+        return get(new Query(Method.ORDERS_BY_STATUS, customerName),
+                () -> unmodifiable(service.getOrdersByStatus(customerName)));
+    }
+
+    /**
+     * Get all Orders paid in the given currency.
+     */
+    public List<Order> getAllPaidOrders(CurrencyCode currency) {
+        return get(new Query(Method.ALL_PAID_ORDERS, currency),
+                () -> Collections.unmodifiableList(service.getAllPaidOrders(currency)));
+    }
+
+    /**
+     * Replace the customer with the same name, or add it if there is none.
+     * The wrapped service is immutable, so every update copies the list of all customers into a new one,
+     * and its time index is rebuilt by the next query over a time range. Meant for rare updates only.
+     */
+    public void updateCustomer(Customer customer) {
+        lock.writeLock().lock();
+        try {
+            List<Customer> customers = new ArrayList<>(service.findAll());
+            Set<CurrencyCode> paidCurrencies = paidCurrencies(customer);
+            int index = indexOf(customers, customer.getName());
+            if (index < 0) {
+                customers.add(customer);
+            } else {
+                paidCurrencies.addAll(paidCurrencies(customers.set(index, customer)));
+            }
+            service = new CustomerService(customers);
+
+            cache.invalidate(new Query(Method.ORDERS_BY_STATUS, customer.getName()));
+            paidCurrencies.forEach(c -> cache.invalidate(new Query(Method.ALL_PAID_ORDERS, c)));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Hit, miss and eviction counts since this cache was created.
+     */
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T get(Query query, Callable<T> loader) {
+        lock.readLock().lock();
+        try {
+            return (T) cache.get(query, loader);
+        } catch (ExecutionException e) {
+            throw new UncheckedExecutionException(e.getCause());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // the cached lists are handed out to every caller, so none of them may change them
+    private static Map<Order.PaymentStatus, List<Order>> unmodifiable(Map<Order.PaymentStatus, List<Order>> byStatus) {
+        Map<Order.PaymentStatus, List<Order>> result = new EnumMap<>(Order.PaymentStatus.class);
+        byStatus.forEach((status, orders) -> result.put(status, Collections.unmodifiableList(orders)));
+        return Collections.unmodifiableMap(result);
+    }
+
+    private static int indexOf(List<Customer> customers, String name) {
+        for (int i = 0; i < customers.size(); i++) {
+            if (customers.get(i).getName().equals(name)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static Set<CurrencyCode> paidCurrencies(Customer customer) {
+        Set<CurrencyCode> currencies = EnumSet.noneOf(CurrencyCode.class);
+        customer.getOrders().stream()
+                .filter(Order::isPaid)
+                .forEach(o -> currencies.add(o.getCurrency()));
+        return currencies;
+    }
+
+    private enum Method {
+        ORDERS_BY_STATUS,
+        ALL_PAID_ORDERS
+    }
+
+    @Value
+    private static class Query {
+        Method method;
+        Object argument;
+    }
+}
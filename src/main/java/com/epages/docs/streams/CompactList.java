@@ -0,0 +1,156 @@
+package com.epages.docs.streams;
+
+import java.util.AbstractList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.RandomAccess;
+
+/**
+ * Immutable lists without slack capacity or wrappers.
+ *
+ * Lists of up to two elements keep them in fields, longer lists in an array of exactly
+ * their size. Most orders have one or two line items, so these lists are smaller than
+ * an ArrayList wrapped into an unmodifiable list. Null elements are not allowed.
+ */
+final class CompactList {
+
+    private CompactList() {}
+
+    // the varargs array is only read element by element, never passed on, which keeps it from escaping
+    @SafeVarargs
+    static <E> List<E> of(E... elements) {
+        switch (elements.length) {
+            case 0:
+                return of();
+            case 1:
+                return new List1<>(elements[0]);
+            case 2:
+                return new List2<>(elements[0], elements[1]);
+            default:
+                Object[] copy = new Object[elements.length];
+                for (int i = 0; i < copy.length; i++) {
+                    copy[i] = elements[i];
+                }
+                return new ListN<>(copy);
+        }
+    }
+
+    /**
+     * Like {@link #of}, but takes over the array instead of copying it.
+     * Only for arrays the caller owns and does not modify afterwards.
+     */
+    @SuppressWarnings("unchecked")
+    static <E> List<E> wrap(Object[] elements) {
+        switch (elements.length) {
+            case 0:
+                return of();
+            case 1:
+                return new List1<>((E) elements[0]);
+            case 2:
+                return new List2<>((E) elements[0], (E) elements[1]);
+            default:
+                return new ListN<>(elements);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    static <E> List<E> of() {
+        return (List<E>) List0.INSTANCE;
+    }
+
+    /**
+     * Return the given list if it already is compact, otherwise a compact copy.
+     */
+    @SuppressWarnings("unchecked")
+    static <E> List<E> copyOf(Collection<? extends E> elements) {
+        if (elements instanceof List0 || elements instanceof List1 || elements instanceof List2 || elements instanceof ListN) {
+            return (List<E>) elements;
+        }
+        return wrap(elements.toArray());
+    }
+
+    private static final class List0<E> extends AbstractList<E> implements RandomAccess {
+        private static final List0<Object> INSTANCE = new List0<>();
+
+        @Override
+        public E get(int index) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: 0");
+        }
+
+        @Override
+        public int size() {
+            return 0;
+        }
+    }
+
+    private static final class List1<E> extends AbstractList<E> implements RandomAccess {
+        private final E e0;
+
+        private List1(E e0) {
+            this.e0 = Objects.requireNonNull(e0);
+        }
+
+        @Override
+        public E get(int index) {
+            if (index != 0) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: 1");
+            }
+            return e0;
+        }
+
+        @Override
+        public int size() {
+            return 1;
+        }
+    }
+
+    private static final class List2<E> extends AbstractList<E> implements RandomAccess {
+        private final E e0;
+        private final E e1;
+
+        private List2(E e0, E e1) {
+            this.e0 = Objects.requireNonNull(e0);
+            this.e1 = Objects.requireNonNull(e1);
+        }
+
+        @Override
+        public E get(int index) {
+            switch (index) {
+                case 0:
+                    return e0;
+                case 1:
+                    return e1;
+                default:
+                    throw new IndexOutOfBoundsException("Index: " + index + ", Size: 2");
+            }
+        }
+
+        @Override
+        public int size() {
+            return 2;
+        }
+    }
+
+    private static final class ListN<E> extends AbstractList<E> implements RandomAccess {
+        private final Object[] elements;
+
+        private ListN(Object[] elements) {
+            for (Object e : elements) {
+                Objects.requireNonNull(e);
+            }
+            this.elements = elements;
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public E get(int index) {
+            return (E) elements[index];
+        }
+
+        @Override
+        public int size() {
+            return elements.length;
+        }
+    }
+}
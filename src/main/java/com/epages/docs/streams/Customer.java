@@ -1,16 +1,62 @@
 package com.epages.docs.streams;
 
 import java.util.List;
+import java.util.Objects;
 
+import lombok.AccessLevel;
 import lombok.Data;
+import lombok.Getter;
 import lombok.NonNull;
+import lombok.Setter;
 import lombok.Singular;
+import lombok.ToString;
 
-@Data class Customer {
+@Data
+@ToString(exclude = "hash")
+class Customer {
     @NonNull
     final String name;
 
     @Singular
     @NonNull
     final List<Order> orders;
+
+    // cached, hashing a customer would otherwise walk all of its orders
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private transient int hash;
+
+    // copies the orders, so the cached hash cannot go stale when the caller changes its list
+    Customer(@NonNull String name, @NonNull List<Order> orders) {
+        this.name = name;
+        this.orders = CompactList.copyOf(orders);
+    }
+
+    static Customer of(String name, Order... orders) {
+        return new Customer(name, CompactList.of(orders));
+    }
+
+    @Override
+    public int hashCode() {
+        int h = hash;
+        if (h == 0) {
+            h = Objects.hash(name, orders);
+            hash = h;
+        }
+        return h;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof Customer)) {
+            return false;
+        }
+        Customer other = (Customer) o;
+        return hashCode() == other.hashCode()
+                && Objects.equals(name, other.name)
+                && Objects.equals(orders, other.orders);
+    }
 }
\ No newline at end of file
@@ -1,20 +1,35 @@
 package com.epages.docs.streams;
 
+import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 import com.neovisionaries.i18n.CurrencyCode;
 
+import lombok.AccessLevel;
+import lombok.Getter;
+
 class CustomerService {
 
     private final List<Customer> customers;
 
+    @Getter(value = AccessLevel.PRIVATE, lazy = true)
+    private final OrderTimeIndex timeIndex = OrderTimeIndex.of(customers);
+
     public CustomerService(List<Customer> customers) {
         this.customers = Collections.unmodifiableList(customers);
     }
 
+    /**
+     * Create a service whose customers only reference the canonical Products of the given catalog.
+     */
+    public CustomerService(List<Customer> customers, ProductCatalog catalog) {
+        this(customers.stream().map(catalog::intern).collect(Collectors.toList()));
+    }
+
     /**
      * Return all customers.
      */
@@ -27,35 +42,86 @@ class CustomerService {
      * Assume that customer names are unique.
      */
     Optional<Customer> findByName(String name) {
-        throw new UnsupportedOperationException();
+        return customers.stream()
+                .filter(c -> c.getName().equals(name))
+                .findFirst();
     }
 
     /**
      * Get all Orders paid in the given currency.
      */
     public List<Order> getAllPaidOrders(CurrencyCode currency) {
-        throw new UnsupportedOperationException();
+        return customers.stream()
+                .flatMap(c -> c.getOrders().stream())
+                .filter(o -> o.isPaid() && currency == o.getCurrency())
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Get all Orders paid in the given currency and created in [from, to).
+     */
+    public List<Order> getAllPaidOrders(CurrencyCode currency, LocalDateTime from, LocalDateTime to) {
+        OrderTimeIndex index = getTimeIndex();
+        return index.range(from, to)
+                .mapToObj(index::order)
+                .filter(o -> o.isPaid() && currency == o.getCurrency())
+                .collect(Collectors.toList());
     }
 
     /**
      * Get a customer's orders by paymentStatus status.
      */
     public Map<Order.PaymentStatus, List<Order>> getOrdersByStatus(String customerName) {
-        throw new UnsupportedOperationException();
+        return findByName(customerName)
+                .map(c -> c.getOrders().stream().collect(KeyedCollectors.groupingBy(Order::getPaymentStatus)))
+                .orElse(Collections.emptyMap());
+    }
+
+    /**
+     * Get a customer's orders created in [from, to) by paymentStatus status.
+     */
+    public Map<Order.PaymentStatus, List<Order>> getOrdersByStatus(String customerName, LocalDateTime from, LocalDateTime to) {
+        OrderTimeIndex index = getTimeIndex();
+        return index.range(from, to)
+                .filter(i -> index.customer(i).getName().equals(customerName))
+                .mapToObj(index::order)
+                .collect(KeyedCollectors.groupingBy(Order::getPaymentStatus));
     }
 
     /**
      * Get all customers that have cancelled at least one order
      */
     public List<Customer> getUnhappyCustomers() {
-        throw new UnsupportedOperationException();
+        return customers.stream()
+                .filter(CustomerService::hasCancelledOrder)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Get all customers that have paid at least one order and never cancelled one
+     */
+    public List<Customer> getHappyCustomers() {
+        return customers.stream()
+                .filter(c -> !hasCancelledOrder(c) && c.getOrders().stream().anyMatch(Order::isPaid))
+                .collect(Collectors.toList());
+    }
+
+    private static boolean hasCancelledOrder(Customer customer) {
+        return customer.getOrders().stream()
+                .anyMatch(o -> o.getPaymentStatus() == Order.PaymentStatus.CANCELLED);
     }
 
     /**
      * Validates if the Order contains only Products that are available in that currency.
      */
     public boolean validateOrder(final Order order) {
-        throw new UnsupportedOperationException();
+        CurrencyCode currency = order.getCurrency();
+        for (LineItem lineItem : order.getLineItems()) {
+            if (!lineItem.getProduct().getPriceTable().contains(currency)) {
+                return false;
+            }
+        }
+        return true;
     }
 
     /**
@@ -65,7 +131,70 @@ class CustomerService {
      * Try not to use getOrDefault, you have a new best friend.
      */
     public long getOutstandingAmount() {
-        throw new UnsupportedOperationException();
+        long total = 0;
+        for (Customer customer : customers) {
+            total += getOutstandingAmount(customer);
+        }
+        return total;
+    }
+
+    /**
+     * Same as {@link #getOutstandingAmount()}, as Money.
+     */
+    public Money getOutstandingMoney() {
+        return Money.of(getOutstandingAmount(), CurrencyCode.EUR);
+    }
+
+    /**
+     * Get the total amount in EUR for all open orders created in [from, to).
+     */
+    public long getOutstandingAmount(LocalDateTime from, LocalDateTime to) {
+        OrderTimeIndex index = getTimeIndex();
+        return index.range(from, to)
+                .mapToObj(index::order)
+                .filter(o -> o.getPaymentStatus() == Order.PaymentStatus.OPEN)
+                .mapToLong(CustomerService::getAmountInEur)
+                .sum();
+    }
+
+    /**
+     * Get the k customers with the highest outstanding amount in EUR, highest first.
+     */
+    public List<Customer> getTopCustomersByOutstandingAmount(int k) {
+        return customers.stream()
+                .collect(TopK.largestByLong(k, CustomerService::getOutstandingAmount));
+    }
+
+    private static long getOutstandingAmount(Customer customer) {
+        long total = 0;
+        for (Order order : customer.getOrders()) {
+            if (order.getPaymentStatus() == Order.PaymentStatus.OPEN) {
+                total += getAmountInEur(order);
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Line item amounts are in the currency of the order, other currencies are converted
+     * using the ratio of the product's prices. Line items without both prices are skipped.
+     */
+    private static long getAmountInEur(Order order) {
+        CurrencyCode currency = order.getCurrency();
+        long total = 0;
+        for (LineItem lineItem : order.getLineItems()) {
+            if (currency == CurrencyCode.EUR) {
+                total += lineItem.getAmount();
+                continue;
+            }
+            PriceTable prices = lineItem.getProduct().getPriceTable();
+            long eur = prices.get(CurrencyCode.EUR);
+            long local = prices.get(currency);
+            if (eur != PriceTable.NO_PRICE && local != PriceTable.NO_PRICE && local != 0) {
+                total += lineItem.getAmount() * eur / local;
+            }
+        }
+        return total;
     }
 
 }
\ No newline at end of file
@@ -0,0 +1,28 @@
+package com.epages.docs.streams;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+import com.neovisionaries.i18n.CurrencyCode;
+
+/**
+ * One partition of the customers of a {@link ShardedCustomerService}.
+ * All queries are asynchronous, a shard may live in another thread, process or node.
+ */
+interface CustomerShard extends AutoCloseable {
+
+    CompletableFuture<Optional<Customer>> findByName(String name);
+
+    CompletableFuture<Map<Order.PaymentStatus, List<Order>>> getOrdersByStatus(String customerName);
+
+    CompletableFuture<List<Order>> getAllPaidOrders(CurrencyCode currency);
+
+    CompletableFuture<List<Customer>> getUnhappyCustomers();
+
+    CompletableFuture<Long> getOutstandingAmount();
+
+    @Override
+    void close();
+}
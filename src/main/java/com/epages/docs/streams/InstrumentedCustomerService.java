@@ -0,0 +1,80 @@
+package com.epages.docs.streams;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import com.epages.docs.streams.QueryMetrics.Query;
+
+/**
+ * Records latency and touched orders and line items of the queries of a {@link CustomerService}.
+ * When metrics are not needed, use the CustomerService itself, so disabled metrics cost nothing.
+ */
+class InstrumentedCustomerService {
+
+    private final CustomerService service;
+    private final QueryMetrics metrics;
+
+    private final long orderCount;
+    private final long lineItemCount;
+
+    InstrumentedCustomerService(CustomerService service, QueryMetrics metrics) {
+        this.service = service;
+        this.metrics = metrics;
+        this.orderCount = service.findAll().stream()
+                .mapToLong(c -> c.getOrders().size())
+                .sum();
+        this.lineItemCount = service.findAll().stream()
+                .flatMap(c -> c.getOrders().stream())
+                .mapToLong(o -> o.getLineItems().size())
+                .sum();
+    }
+
+    /**
+     * Find a customer by name.
+     */
+    Optional<Customer> findByName(String name) {
+        long start = System.nanoTime();
+        Optional<Customer> customer = service.findByName(name);
+        metrics.record(Query.FIND_BY_NAME, start, 0, 0);
+        return customer;
+    }
+
+    /**
+     * Get a customer's orders by paymentStatus status.
+     */
+    public Map<Order.PaymentStatus, List<Order>> getOrdersByStatus(String customerName) {
+        long start = System.nanoTime();
+        Map<Order.PaymentStatus, List<Order>> orders = service.getOrdersByStatus(customerName);
+        long touched = 0;
+        for (List<Order> byStatus : orders.values()) {
+            touched += byStatus.size();
+        }
+        metrics.record(Query.ORDERS_BY_STATUS, start, touched, 0);
+        return orders;
+    }
+
+    /**
+     * Validates if the Order contains only Products that are available in that currency.
+     */
+    public boolean validateOrder(final Order order) {
+        long start = System.nanoTime();
+        boolean valid = service.validateOrder(order);
+        metrics.record(Query.VALIDATE_ORDER, start, 1, order.getLineItems().size());
+        return valid;
+    }
+
+    /**
+     * Get the total amount in EUR for all open orders.
+     */
+    public long getOutstandingAmount() {
+        long start = System.nanoTime();
+        long amount = service.getOutstandingAmount();
+        metrics.record(Query.OUTSTANDING_AMOUNT, start, orderCount, lineItemCount);
+        return amount;
+    }
+
+    public QueryMetrics getMetrics() {
+        return metrics;
+    }
+}
@@ -0,0 +1,247 @@
+package com.epages.docs.streams;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.BinaryOperator;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
+import java.util.stream.Collector;
+
+/**
+ * Grouping collectors for keys with a small domain, like currencies and payment statuses.
+ *
+ * If the keys turn out to be constants of a single enum, the groups are kept in an array indexed
+ * by ordinal and returned as an {@link EnumMap}, otherwise in a HashMap. A key of another type
+ * moves all groups over to the HashMap.
+ * Sums are accumulated in primitive longs, a Long is only boxed once per key in the result.
+ * Like {@link java.util.stream.Collectors#groupingBy}, only keys with at least one element
+ * are contained in the result.
+ */
+public final class KeyedCollectors {
+
+    private KeyedCollectors() {}
+
+    public static <T, K> Collector<T, ?, Map<K, List<T>>> groupingBy(Function<? super T, ? extends K> classifier) {
+        return Collector.of(
+                Groups<K, List<T>>::new,
+                (groups, t) -> groups.get(classifier.apply(t), ArrayList::new).add(t),
+                (left, right) -> left.merge(right, (l, r) -> {
+                    l.addAll(r);
+                    return l;
+                }),
+                groups -> groups.toMap(Function.identity()));
+    }
+
+    public static <T, K> Collector<T, ?, Map<K, Long>> summingLong(Function<? super T, ? extends K> classifier,
+                                                                   ToLongFunction<? super T> mapper) {
+        return Collector.of(
+                Groups<K, long[]>::new,
+                (groups, t) -> groups.get(classifier.apply(t), () -> new long[1])[0] += mapper.applyAsLong(t),
+                (left, right) -> left.merge(right, (l, r) -> {
+                    l[0] += r[0];
+                    return l;
+                }),
+                groups -> groups.toMap(sum -> sum[0]));
+    }
+
+    /**
+     * Concurrent variant of {@link #groupingBy} for enum keys, all threads of a parallel stream
+     * add to the same queues. The order of the elements within a group is not preserved.
+     */
+    public static <T, K extends Enum<K>> Collector<T, ?, Map<K, List<T>>> groupingByConcurrent(
+            Class<K> keyType, Function<? super T, K> classifier) {
+        K[] keys = keyType.getEnumConstants();
+        return Collector.of(
+                () -> new AtomicReferenceArray<Queue<T>>(keys.length),
+                (groups, t) -> {
+                    int i = Objects.requireNonNull(classifier.apply(t), "element cannot be mapped to a null key").ordinal();
+                    Queue<T> group = groups.get(i);
+                    if (group == null) {
+                        groups.compareAndSet(i, null, new ConcurrentLinkedQueue<>());
+                        group = groups.get(i);
+                    }
+                    group.add(t);
+                },
+                // a parallel stream shares one container, others may still combine two
+                (left, right) -> {
+                    if (left != right) {
+                        for (int i = 0; i < keys.length; i++) {
+                            Queue<T> group = right.get(i);
+                            if (group == null) {
+                                continue;
+                            }
+                            if (left.get(i) == null) {
+                                left.set(i, group);
+                            } else {
+                                left.get(i).addAll(group);
+                            }
+                        }
+                    }
+                    return left;
+                },
+                groups -> {
+                    Map<K, List<T>> result = new EnumMap<>(keyType);
+                    for (int i = 0; i < keys.length; i++) {
+                        if (groups.get(i) != null) {
+                            result.put(keys[i], new ArrayList<>(groups.get(i)));
+                        }
+                    }
+                    return result;
+                },
+                Collector.Characteristics.CONCURRENT,
+                Collector.Characteristics.UNORDERED);
+    }
+
+    /**
+     * Concurrent variant of {@link #summingLong} for enum keys, all threads of a parallel stream
+     * add to the same array of sums.
+     */
+    public static <T, K extends Enum<K>> Collector<T, ?, Map<K, Long>> summingLongConcurrent(
+            Class<K> keyType, Function<? super T, K> classifier, ToLongFunction<? super T> mapper) {
+        K[] keys = keyType.getEnumConstants();
+        // one slot per ordinal for the sum, followed by one slot per ordinal counting the elements
+        return Collector.of(
+                () -> new AtomicLongArray(2 * keys.length),
+                (sums, t) -> {
+                    int i = Objects.requireNonNull(classifier.apply(t), "element cannot be mapped to a null key").ordinal();
+                    sums.addAndGet(i, mapper.applyAsLong(t));
+                    sums.incrementAndGet(keys.length + i);
+                },
+                (left, right) -> {
+                    if (left != right) {
+                        for (int i = 0; i < right.length(); i++) {
+                            left.addAndGet(i, right.get(i));
+                        }
+                    }
+                    return left;
+                },
+                sums -> {
+                    Map<K, Long> result = new EnumMap<>(keyType);
+                    for (int i = 0; i < keys.length; i++) {
+                        if (sums.get(keys.length + i) > 0) {
+                            result.put(keys[i], sums.get(i));
+                        }
+                    }
+                    return result;
+                },
+                Collector.Characteristics.CONCURRENT,
+                Collector.Characteristics.UNORDERED);
+    }
+
+    /**
+     * Mutable groups, indexed by ordinal as long as all keys are constants of the enum of the first key.
+     */
+    private static final class Groups<K, A> {
+
+        private Class<?> enumType;
+        private Object[] byOrdinal;
+        private Map<K, A> byKey;
+
+        A get(K key, Supplier<A> factory) {
+            Objects.requireNonNull(key, "element cannot be mapped to a null key");
+            if (byOrdinal == null && byKey == null) {
+                init(key);
+            }
+            if (byOrdinal != null && !isIndexed(key)) {
+                toHashMap();
+            }
+            if (byOrdinal != null) {
+                int i = ((Enum<?>) key).ordinal();
+                @SuppressWarnings("unchecked")
+                A group = (A) byOrdinal[i];
+                if (group == null) {
+                    group = factory.get();
+                    byOrdinal[i] = group;
+                }
+                return group;
+            }
+            return byKey.computeIfAbsent(key, k -> factory.get());
+        }
+
+        @SuppressWarnings("unchecked")
+        Groups<K, A> merge(Groups<K, A> other, BinaryOperator<A> combiner) {
+            if (other.byOrdinal != null) {
+                for (int i = 0; i < other.byOrdinal.length; i++) {
+                    A group = (A) other.byOrdinal[i];
+                    if (group != null) {
+                        add((K) other.enumType.getEnumConstants()[i], group, combiner);
+                    }
+                }
+            } else if (other.byKey != null) {
+                other.byKey.forEach((key, group) -> add(key, group, combiner));
+            }
+            return this;
+        }
+
+        @SuppressWarnings({ "unchecked", "rawtypes" })
+        <V> Map<K, V> toMap(Function<A, V> finisher) {
+            if (byOrdinal == null) {
+                Map<K, V> result = new HashMap<>();
+                if (byKey != null) {
+                    byKey.forEach((key, group) -> result.put(key, finisher.apply(group)));
+                }
+                return result;
+            }
+            Map result = new EnumMap(enumType);
+            Object[] keys = enumType.getEnumConstants();
+            for (int i = 0; i < byOrdinal.length; i++) {
+                if (byOrdinal[i] != null) {
+                    result.put(keys[i], finisher.apply((A) byOrdinal[i]));
+                }
+            }
+            return result;
+        }
+
+        private void add(K key, A group, BinaryOperator<A> combiner) {
+            A existing = get(key, () -> null);
+            if (existing == null) {
+                put(key, group);
+            } else {
+                put(key, combiner.apply(existing, group));
+            }
+        }
+
+        private void put(K key, A group) {
+            if (byOrdinal != null) {
+                byOrdinal[((Enum<?>) key).ordinal()] = group;
+            } else {
+                byKey.put(key, group);
+            }
+        }
+
+        private boolean isIndexed(K key) {
+            return key instanceof Enum && ((Enum<?>) key).getDeclaringClass() == enumType;
+        }
+
+        @SuppressWarnings("unchecked")
+        private void toHashMap() {
+            byKey = new HashMap<>();
+            Object[] keys = enumType.getEnumConstants();
+            for (int i = 0; i < byOrdinal.length; i++) {
+                if (byOrdinal[i] != null) {
+                    byKey.put((K) keys[i], (A) byOrdinal[i]);
+                }
+            }
+            byOrdinal = null;
+            enumType = null;
+        }
+
+        private void init(K key) {
+            if (key instanceof Enum) {
+                enumType = ((Enum<?>) key).getDeclaringClass();
+                byOrdinal = new Object[enumType.getEnumConstants().length];
+            } else {
+                byKey = new HashMap<>();
+            }
+        }
+    }
+}
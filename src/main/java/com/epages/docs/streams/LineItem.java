@@ -1,8 +1,45 @@
 package com.epages.docs.streams;
 
+import java.util.Objects;
+
+import lombok.AccessLevel;
 import lombok.Data;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
 
-@Data class LineItem {
+@Data
+@ToString(exclude = "hash")
+class LineItem {
     private final Product product;
     private final long amount;
+
+    // cached, so hashing an order does not rehash its products over and over
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private transient int hash;
+
+    @Override
+    public int hashCode() {
+        int h = hash;
+        if (h == 0) {
+            h = Objects.hash(product, amount);
+            hash = h;
+        }
+        return h;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof LineItem)) {
+            return false;
+        }
+        LineItem other = (LineItem) o;
+        return hashCode() == other.hashCode()
+                && Objects.equals(product, other.product)
+                && amount == other.amount;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,63 @@
+package com.epages.docs.streams;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+
+import com.neovisionaries.i18n.CurrencyCode;
+
+/**
+ * In-process shard, answers all queries from its own worker thread.
+ */
+class LocalCustomerShard implements CustomerShard {
+
+    private final CustomerService service;
+    private final ExecutorService worker;
+
+    LocalCustomerShard(List<Customer> customers) {
+        this.service = new CustomerService(customers);
+        this.worker = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "customer-shard");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Override
+    public CompletableFuture<Optional<Customer>> findByName(String name) {
+        return submit(() -> service.findByName(name));
+    }
+
+    @Override
+    public CompletableFuture<Map<Order.PaymentStatus, List<Order>>> getOrdersByStatus(String customerName) {
+        return submit(() -> service.getOrdersByStatus(customerName));
+    }
+
+    @Override
+    public CompletableFuture<List<Order>> getAllPaidOrders(CurrencyCode currency) {
+        return submit(() -> service.getAllPaidOrders(currency));
+    }
+
+    @Override
+    public CompletableFuture<List<Customer>> getUnhappyCustomers() {
+        return submit(service::getUnhappyCustomers);
+    }
+
+    @Override
+    public CompletableFuture<Long> getOutstandingAmount() {
+        return submit(service::getOutstandingAmount);
+    }
+
+    @Override
+    public void close() {
+        worker.shutdown();
+    }
+
+    private <T> CompletableFuture<T> submit(Supplier<T> query) {
+        return CompletableFuture.supplyAsync(query, worker);
+    }
+}
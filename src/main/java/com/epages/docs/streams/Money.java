@@ -0,0 +1,73 @@
+package com.epages.docs.streams;
+
+import java.io.IOException;
+import java.util.Currency;
+
+import com.neovisionaries.i18n.CurrencyCode;
+
+import lombok.NonNull;
+import lombok.Value;
+
+/**
+ * An amount of money in the minor unit of its currency, e.g. cents for EUR.
+ *
+ * Formatted as {@code 12.34 EUR}, with as many fraction digits as the currency defines.
+ * The appendTo methods write digit by digit into the target and allocate nothing.
+ */
+@Value(staticConstructor = "of")
+class Money {
+
+    private static final long[] POWERS_OF_TEN = new long[19];
+    private static final int[] FRACTION_DIGITS = new int[CurrencyCode.values().length];
+
+    static {
+        POWERS_OF_TEN[0] = 1;
+        for (int i = 1; i < POWERS_OF_TEN.length; i++) {
+            POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10;
+        }
+        for (CurrencyCode code : CurrencyCode.values()) {
+            Currency currency = code.getCurrency();
+            FRACTION_DIGITS[code.ordinal()] = currency == null ? 0 : Math.max(0, currency.getDefaultFractionDigits());
+        }
+    }
+
+    long minorUnits;
+    @NonNull
+    CurrencyCode currency;
+
+    StringBuilder appendTo(StringBuilder target) {
+        try {
+            appendTo((Appendable) target);
+        } catch (IOException e) {
+            throw new IllegalStateException("StringBuilder does not throw IOException", e);
+        }
+        return target;
+    }
+
+    <A extends Appendable> A appendTo(A target) throws IOException {
+        int fractionDigits = FRACTION_DIGITS[currency.ordinal()];
+        // negative, so Long.MIN_VALUE does not overflow
+        long n = minorUnits > 0 ? -minorUnits : minorUnits;
+        if (minorUnits < 0) {
+            target.append('-');
+        }
+        int digits = 1;
+        while (digits < POWERS_OF_TEN.length && n <= -POWERS_OF_TEN[digits]) {
+            digits++;
+        }
+        for (int i = Math.max(digits, fractionDigits + 1) - 1; i >= 0; i--) {
+            if (i == fractionDigits - 1) {
+                target.append('.');
+            }
+            long digit = -((n / POWERS_OF_TEN[i]) % 10);
+            target.append((char) ('0' + digit));
+        }
+        target.append(' ').append(currency.name());
+        return target;
+    }
+
+    @Override
+    public String toString() {
+        return appendTo(new StringBuilder(32)).toString();
+    }
+}
@@ -0,0 +1,166 @@
+package com.epages.docs.streams;
+
+import java.util.Optional;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Optional extraction without an Optional per hop.
+ *
+ * A chain of accessors like {@code Message -> Optional<Product> -> Optional<Price> -> Optional<Currency>}
+ * is compiled into a single function that checks each hop for null or empty,
+ * instead of wrapping every intermediate result with map or flatMap.
+ */
+public final class Optionals {
+
+    private Optionals() {}
+
+    /**
+     * Start a path with an accessor that may return null.
+     */
+    public static <T, R> Path<T, R> path(Function<? super T, ? extends R> accessor) {
+        return new Path<>(accessor::apply);
+    }
+
+    /**
+     * Start a path with an accessor returning an Optional.
+     */
+    public static <T, R> Path<T, R> optionalPath(Function<? super T, Optional<R>> accessor) {
+        return new Path<>(t -> unwrap(accessor.apply(t)));
+    }
+
+    /**
+     * Map every element with the projection and keep only the present values.
+     * Same as {@code map(projection).filter(Optional::isPresent).map(Optional::get)},
+     * but without wrapping the values into Optionals if the projection is a {@link Path}.
+     */
+    public static <T, R> Stream<R> flatMapPresent(Stream<T> stream, Function<? super T, Optional<R>> projection) {
+        if (projection instanceof Path) {
+            @SuppressWarnings("unchecked")
+            Path<? super T, R> path = (Path<? super T, R>) projection;
+            return mapNonNull(stream, path::orNull);
+        }
+        return mapNonNull(stream, t -> unwrap(projection.apply(t)));
+    }
+
+    /**
+     * Map every element with the projection and drop null results.
+     */
+    public static <T, R> Stream<R> mapNonNull(Stream<T> stream, Function<? super T, ? extends R> projection) {
+        return StreamSupport.stream(new NonNullSpliterator<T, R>(stream.spliterator(), projection), stream.isParallel())
+                .onClose(stream::close);
+    }
+
+    private static <R> R unwrap(Optional<R> optional) {
+        return optional == null ? null : optional.orElse(null);
+    }
+
+    /**
+     * A chain of accessors, each of which is only applied if the previous one returned a value.
+     */
+    public static final class Path<T, R> implements Function<T, Optional<R>> {
+
+        private final Function<? super T, ? extends R> nullable;
+
+        private Path(Function<? super T, ? extends R> nullable) {
+            this.nullable = nullable;
+        }
+
+        public <V> Path<T, V> then(Function<? super R, ? extends V> accessor) {
+            return new Path<>(t -> {
+                R r = orNull(t);
+                return r == null ? null : accessor.apply(r);
+            });
+        }
+
+        /**
+         * Continue with an accessor returning an Optional. Only saves allocations if the accessor
+         * returns a stored Optional; hops via {@link #then} never create one.
+         */
+        public <V> Path<T, V> thenOptional(Function<? super R, Optional<V>> accessor) {
+            return new Path<>(t -> {
+                R r = orNull(t);
+                return r == null ? null : unwrap(accessor.apply(r));
+            });
+        }
+
+        /**
+         * Return the value at the end of the path, null if any hop is absent.
+         */
+        public R orNull(T t) {
+            return t == null ? null : nullable.apply(t);
+        }
+
+        public R orElse(T t, R other) {
+            R r = orNull(t);
+            return r == null ? other : r;
+        }
+
+        /**
+         * Return the value at the end of the path, only the result itself is wrapped.
+         */
+        @Override
+        public Optional<R> apply(T t) {
+            return Optional.ofNullable(orNull(t));
+        }
+    }
+
+    private static final class NonNullSpliterator<T, R> implements Spliterator<R>, Consumer<T> {
+
+        private final Spliterator<T> source;
+        private final Function<? super T, ? extends R> projection;
+        private R current;
+
+        private NonNullSpliterator(Spliterator<T> source, Function<? super T, ? extends R> projection) {
+            this.source = source;
+            this.projection = projection;
+        }
+
+        @Override
+        public void accept(T t) {
+            current = projection.apply(t);
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super R> action) {
+            while (source.tryAdvance(this)) {
+                R r = current;
+                if (r != null) {
+                    current = null;
+                    action.accept(r);
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super R> action) {
+            source.forEachRemaining(t -> {
+                R r = projection.apply(t);
+                if (r != null) {
+                    action.accept(r);
+                }
+            });
+        }
+
+        @Override
+        public Spliterator<R> trySplit() {
+            Spliterator<T> prefix = source.trySplit();
+            return prefix == null ? null : new NonNullSpliterator<>(prefix, projection);
+        }
+
+        @Override
+        public long estimateSize() {
+            return source.estimateSize();
+        }
+
+        @Override
+        public int characteristics() {
+            return (source.characteristics() & (ORDERED | IMMUTABLE | CONCURRENT)) | NONNULL;
+        }
+    }
+}
@@ -2,13 +2,20 @@ package com.epages.docs.streams;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Objects;
 
 import com.neovisionaries.i18n.CurrencyCode;
 
+import lombok.AccessLevel;
 import lombok.Data;
+import lombok.Getter;
+import lombok.Setter;
 import lombok.Singular;
+import lombok.ToString;
 
-@Data class Order {
+@Data
+@ToString(exclude = "hash")
+class Order {
 
     enum PaymentStatus {
         OPEN,
@@ -22,7 +29,49 @@ import lombok.Singular;
     private final CurrencyCode currency;
     private final PaymentStatus paymentStatus;
 
+    // cached, orders are immutable
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private transient int hash;
+
+    Order(LocalDateTime createdAt, List<LineItem> lineItems, CurrencyCode currency, PaymentStatus paymentStatus) {
+        this.createdAt = createdAt;
+        this.lineItems = lineItems == null ? null : CompactList.copyOf(lineItems);
+        this.currency = currency;
+        this.paymentStatus = paymentStatus;
+    }
+
+    static Order of(LocalDateTime createdAt, CurrencyCode currency, PaymentStatus paymentStatus, LineItem... lineItems) {
+        return new Order(createdAt, CompactList.of(lineItems), currency, paymentStatus);
+    }
+
     public boolean isPaid() {
         return PaymentStatus.PAID.equals(paymentStatus);
     }
+
+    @Override
+    public int hashCode() {
+        int h = hash;
+        if (h == 0) {
+            h = Objects.hash(createdAt, lineItems, currency, paymentStatus);
+            hash = h;
+        }
+        return h;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof Order)) {
+            return false;
+        }
+        Order other = (Order) o;
+        return hashCode() == other.hashCode()
+                && Objects.equals(createdAt, other.createdAt)
+                && Objects.equals(lineItems, other.lineItems)
+                && currency == other.currency
+                && paymentStatus == other.paymentStatus;
+    }
 }
\ No newline at end of file
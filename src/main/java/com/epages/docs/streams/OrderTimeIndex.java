@@ -0,0 +1,110 @@
+package com.epages.docs.streams;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Orders of all customers sorted by their creation time.
+ *
+ * Creation times are kept as epoch millis in a primitive array, the window [from, to)
+ * of a query is located with two binary searches, so the cost of iterating
+ * it only depends on the number of orders inside the window. The millis only narrow
+ * down the search, orders within the millisecond of a bound are compared exactly.
+ * LocalDateTime has no zone, UTC is used as a fixed offset for the conversion.
+ * Orders without a creation time are not indexed.
+ */
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+final class OrderTimeIndex {
+
+    private final long[] createdAt;
+    private final Order[] orders;
+    private final Customer[] customers;
+
+    static OrderTimeIndex of(List<Customer> customers) {
+        Entry[] entries = customers.stream()
+                .flatMap(c -> c.getOrders().stream()
+                        .filter(o -> o.getCreatedAt() != null)
+                        .map(o -> new Entry(toEpochMilli(o.getCreatedAt()), o, c)))
+                .sorted(Comparator.comparing(e -> e.order.getCreatedAt()))
+                .toArray(Entry[]::new);
+
+        long[] createdAt = new long[entries.length];
+        Order[] orders = new Order[entries.length];
+        Customer[] owners = new Customer[entries.length];
+        for (int i = 0; i < entries.length; i++) {
+            createdAt[i] = entries[i].createdAt;
+            orders[i] = entries[i].order;
+            owners[i] = entries[i].customer;
+        }
+        return new OrderTimeIndex(createdAt, orders, owners);
+    }
+
+    /**
+     * Return the positions of all orders created in [from, to).
+     */
+    IntStream range(LocalDateTime from, LocalDateTime to) {
+        int start = lowerBound(from);
+        int end = lowerBound(to);
+        return IntStream.range(start, Math.max(start, end));
+    }
+
+    Order order(int position) {
+        return orders[position];
+    }
+
+    Customer customer(int position) {
+        return customers[position];
+    }
+
+    /**
+     * Index of the first order created at or after the given time.
+     */
+    private int lowerBound(LocalDateTime time) {
+        // bounds outside of the indexed orders, like LocalDateTime.MIN and MAX, may have no epoch millis
+        if (orders.length == 0 || !orders[0].getCreatedAt().isBefore(time)) {
+            return 0;
+        }
+        if (orders[orders.length - 1].getCreatedAt().isBefore(time)) {
+            return orders.length;
+        }
+        int position = lowerBound(toEpochMilli(time));
+        while (position < orders.length && orders[position].getCreatedAt().isBefore(time)) {
+            position++;
+        }
+        return position;
+    }
+
+    /**
+     * Index of the first order created in or after the given millisecond.
+     */
+    private int lowerBound(long millis) {
+        int low = 0;
+        int high = createdAt.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (createdAt[mid] < millis) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static long toEpochMilli(LocalDateTime time) {
+        return time.toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+
+    @RequiredArgsConstructor
+    private static final class Entry {
+        private final long createdAt;
+        private final Order order;
+        private final Customer customer;
+    }
+}
@@ -0,0 +1,59 @@
+package com.epages.docs.streams;
+
+import java.util.Arrays;
+import java.util.Map;
+
+import com.neovisionaries.i18n.CurrencyCode;
+
+/**
+ * Primitive lookup table for the prices of a Product, indexed by {@link CurrencyCode#ordinal()}.
+ *
+ * Missing prices are stored as {@link #NO_PRICE}, the currencies that do have a price
+ * are additionally tracked in a bitmask, one bit per ordinal.
+ */
+final class PriceTable {
+
+    static final long NO_PRICE = Long.MIN_VALUE;
+
+    private static final PriceTable EMPTY = new PriceTable(new long[0], new long[0]);
+
+    private final long[] prices;
+    private final long[] present;
+
+    private PriceTable(long[] prices, long[] present) {
+        this.prices = prices;
+        this.present = present;
+    }
+
+    static PriceTable of(Map<CurrencyCode, Long> prices) {
+        if (prices == null || prices.isEmpty()) {
+            return EMPTY;
+        }
+        int size = prices.keySet().stream().mapToInt(CurrencyCode::ordinal).max().getAsInt() + 1;
+        long[] table = new long[size];
+        long[] present = new long[(size + 63) >>> 6];
+        Arrays.fill(table, NO_PRICE);
+        prices.forEach((currency, price) -> {
+            if (price != null) {
+                int i = currency.ordinal();
+                table[i] = price;
+                present[i >>> 6] |= 1L << i;
+            }
+        });
+        return new PriceTable(table, present);
+    }
+
+    boolean contains(CurrencyCode currency) {
+        int i = currency.ordinal();
+        int word = i >>> 6;
+        return word < present.length && (present[word] & (1L << i)) != 0;
+    }
+
+    /**
+     * Return the price in the given currency or {@link #NO_PRICE}.
+     */
+    long get(CurrencyCode currency) {
+        int i = currency.ordinal();
+        return i < prices.length ? prices[i] : NO_PRICE;
+    }
+}
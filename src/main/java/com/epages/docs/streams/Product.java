@@ -1,13 +1,73 @@
 package com.epages.docs.streams;
 
+import java.util.EnumMap;
 import java.util.Map;
+import java.util.Objects;
 
+import com.google.common.collect.Maps;
 import com.neovisionaries.i18n.CurrencyCode;
 
+import lombok.AccessLevel;
 import lombok.Data;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
 
-@Data class Product {
+@Data
+@ToString(exclude = { "priceTable", "hash" })
+class Product {
     private final String name;
     private final String description;
     private final Map<CurrencyCode, Long> prices;
+
+    @Getter(lazy = true)
+    private final PriceTable priceTable = PriceTable.of(prices);
+
+    // computed on first use, products are immutable
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private transient int hash;
+
+    // the prices are copied into an immutable EnumMap, which is also the most compact map for them
+    Product(String name, String description, Map<CurrencyCode, Long> prices) {
+        this.name = name;
+        this.description = description;
+        this.prices = prices == null ? null : copyPrices(prices);
+    }
+
+    // a null price means no price, as it does for the PriceTable, so it is left out
+    private static Map<CurrencyCode, Long> copyPrices(Map<CurrencyCode, Long> prices) {
+        Map<CurrencyCode, Long> copy = new EnumMap<>(CurrencyCode.class);
+        prices.forEach((currency, price) -> {
+            if (price != null) {
+                copy.put(currency, price);
+            }
+        });
+        return Maps.immutableEnumMap(copy);
+    }
+
+    @Override
+    public int hashCode() {
+        int h = hash;
+        if (h == 0) {
+            h = Objects.hash(name, description, prices);
+            hash = h;
+        }
+        return h;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof Product)) {
+            return false;
+        }
+        Product other = (Product) o;
+        return hashCode() == other.hashCode()
+                && Objects.equals(name, other.name)
+                && Objects.equals(description, other.description)
+                && Objects.equals(prices, other.prices);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,77 @@
+package com.epages.docs.streams;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.UnaryOperator;
+
+/**
+ * Pool of canonical Products, shared by all orders of all customers.
+ * Assume that product names are unique, the first Product seen for a name wins.
+ */
+class ProductCatalog {
+
+    private final ConcurrentMap<String, Product> products = new ConcurrentHashMap<>();
+
+    /**
+     * Return the canonical instance for the given Product, registering it if it is new.
+     * Products without a name cannot be pooled and are returned as they are.
+     */
+    Product intern(Product product) {
+        if (product.getName() == null) {
+            return product;
+        }
+        Product canonical = products.get(product.getName());
+        if (canonical != null) {
+            return canonical;
+        }
+        canonical = products.putIfAbsent(product.getName(), product);
+        return canonical != null ? canonical : products.get(product.getName());
+    }
+
+    LineItem intern(LineItem lineItem) {
+        Product product = intern(lineItem.getProduct());
+        return product == lineItem.getProduct() ? lineItem : new LineItem(product, lineItem.getAmount());
+    }
+
+    Order intern(Order order) {
+        List<LineItem> lineItems = internAll(order.getLineItems(), this::intern);
+        return lineItems == order.getLineItems() ? order
+                : new Order(order.getCreatedAt(), lineItems, order.getCurrency(), order.getPaymentStatus());
+    }
+
+    Customer intern(Customer customer) {
+        List<Order> orders = internAll(customer.getOrders(), this::intern);
+        return orders == customer.getOrders() ? customer : new Customer(customer.getName(), orders);
+    }
+
+    Optional<Product> findByName(String name) {
+        return Optional.ofNullable(products.get(name));
+    }
+
+    int size() {
+        return products.size();
+    }
+
+    /**
+     * Only copies the list if at least one element was replaced by its canonical instance.
+     */
+    private static <T> List<T> internAll(List<T> elements, UnaryOperator<T> interner) {
+        Object[] interned = null;
+        for (int i = 0; i < elements.size(); i++) {
+            T element = elements.get(i);
+            T canonical = interner.apply(element);
+            if (canonical != element && interned == null) {
+                interned = elements.toArray();
+            }
+            if (interned != null) {
+                interned[i] = canonical;
+            }
+        }
+        if (interned == null) {
+            return elements;
+        }
+        return CompactList.wrap(interned);
+    }
+}
@@ -0,0 +1,91 @@
+package com.epages.docs.streams;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+
+/**
+ * Call counts, touched orders and line items, and latency histograms per query type.
+ */
+class QueryMetrics {
+
+    enum Query {
+        FIND_BY_NAME,
+        ORDERS_BY_STATUS,
+        VALIDATE_ORDER,
+        OUTSTANDING_AMOUNT
+    }
+
+    private final Map<Query, Stats> stats = new EnumMap<>(Query.class);
+
+    QueryMetrics() {
+        for (Query query : Query.values()) {
+            stats.put(query, new Stats());
+        }
+    }
+
+    void record(Query query, long startNanos, long orders, long lineItems) {
+        Stats s = stats.get(query);
+        s.latency.record(System.nanoTime() - startNanos);
+        s.orders.add(orders);
+        s.lineItems.add(lineItems);
+    }
+
+    long count(Query query) {
+        return stats.get(query).latency.count();
+    }
+
+    long orders(Query query) {
+        return stats.get(query).orders.sum();
+    }
+
+    long lineItems(Query query) {
+        return stats.get(query).lineItems.sum();
+    }
+
+    /**
+     * Latency in nanoseconds at the given percentile, e.g. 99.0
+     */
+    long latency(Query query, double percentile) {
+        return stats.get(query).latency.percentile(percentile);
+    }
+
+    void log(Logger logger) {
+        for (Query query : Query.values()) {
+            logger.info(format(query));
+        }
+    }
+
+    void writeTo(Path file) throws IOException {
+        try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            for (Query query : Query.values()) {
+                writer.write(format(query));
+                writer.write(System.lineSeparator());
+            }
+        }
+    }
+
+    private String format(Query query) {
+        Stats s = stats.get(query);
+        return query
+                + " count=" + s.latency.count()
+                + " orders=" + s.orders.sum()
+                + " lineItems=" + s.lineItems.sum()
+                + " p50=" + s.latency.percentile(50) + "ns"
+                + " p99=" + s.latency.percentile(99) + "ns"
+                + " max=" + s.latency.max() + "ns";
+    }
+
+    private static final class Stats {
+        private final LongAdder orders = new LongAdder();
+        private final LongAdder lineItems = new LongAdder();
+        private final LatencyHistogram latency = new LatencyHistogram();
+    }
+}
@@ -0,0 +1,68 @@
+package com.epages.docs.streams;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+import com.neovisionaries.i18n.CurrencyCode;
+
+/**
+ * Local stand-in for a shard on another node.
+ *
+ * Results never share collections with the shard they come from, just as if they had been
+ * serialized and sent over the wire, so callers cannot rely on sharing state with the shard.
+ */
+class RemoteCustomerShardStub implements CustomerShard {
+
+    private final CustomerShard remote;
+
+    RemoteCustomerShardStub(List<Customer> customers) {
+        this.remote = new LocalCustomerShard(customers);
+    }
+
+    @Override
+    public CompletableFuture<Optional<Customer>> findByName(String name) {
+        return remote.findByName(name)
+                .thenApply(c -> c.map(RemoteCustomerShardStub::copy));
+    }
+
+    @Override
+    public CompletableFuture<Map<Order.PaymentStatus, List<Order>>> getOrdersByStatus(String customerName) {
+        return remote.getOrdersByStatus(customerName).thenApply(byStatus -> {
+            Map<Order.PaymentStatus, List<Order>> copy = new EnumMap<>(Order.PaymentStatus.class);
+            byStatus.forEach((status, orders) -> copy.put(status, new ArrayList<>(orders)));
+            return copy;
+        });
+    }
+
+    @Override
+    public CompletableFuture<List<Order>> getAllPaidOrders(CurrencyCode currency) {
+        return remote.getAllPaidOrders(currency).thenApply(ArrayList::new);
+    }
+
+    @Override
+    public CompletableFuture<List<Customer>> getUnhappyCustomers() {
+        return remote.getUnhappyCustomers().thenApply(customers -> {
+            List<Customer> copy = new ArrayList<>(customers.size());
+            customers.forEach(c -> copy.add(copy(c)));
+            return copy;
+        });
+    }
+
+    @Override
+    public CompletableFuture<Long> getOutstandingAmount() {
+        return remote.getOutstandingAmount();
+    }
+
+    @Override
+    public void close() {
+        remote.close();
+    }
+
+    private static Customer copy(Customer customer) {
+        return new Customer(customer.getName(), new ArrayList<>(customer.getOrders()));
+    }
+}
@@ -0,0 +1,127 @@
+package com.epages.docs.streams;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import com.neovisionaries.i18n.CurrencyCode;
+
+/**
+ * Customers partitioned into independent shards by the hash of their name.
+ *
+ * Queries for a single customer are routed to the one shard owning that name,
+ * aggregations are sent to all shards in parallel and their results merged.
+ */
+class ShardedCustomerService implements AutoCloseable {
+
+    private final List<CustomerShard> shards;
+
+    ShardedCustomerService(List<CustomerShard> shards) {
+        if (shards.isEmpty()) {
+            throw new IllegalArgumentException("at least one shard is required");
+        }
+        this.shards = Collections.unmodifiableList(new ArrayList<>(shards));
+    }
+
+    /**
+     * Partition the customers into the given number of in-process shards.
+     */
+    static ShardedCustomerService local(List<Customer> customers, int shardCount) {
+        return new ShardedCustomerService(partition(customers, shardCount).stream()
+                .map(LocalCustomerShard::new)
+                .collect(Collectors.toList()));
+    }
+
+    /**
+     * Partition the customers into the given number of stand-ins for remote shards.
+     */
+    static ShardedCustomerService remote(List<Customer> customers, int shardCount) {
+        return new ShardedCustomerService(partition(customers, shardCount).stream()
+                .map(RemoteCustomerShardStub::new)
+                .collect(Collectors.toList()));
+    }
+
+    static List<List<Customer>> partition(List<Customer> customers, int shardCount) {
+        if (shardCount < 1) {
+            throw new IllegalArgumentException("shardCount must be positive, got " + shardCount);
+        }
+        List<List<Customer>> partitions = new ArrayList<>(shardCount);
+        for (int i = 0; i < shardCount; i++) {
+            partitions.add(new ArrayList<>());
+        }
+        customers.forEach(c -> partitions.get(shardIndex(c.getName(), shardCount)).add(c));
+        return partitions;
+    }
+
+    private static int shardIndex(String customerName, int shardCount) {
+        return Math.floorMod(customerName.hashCode(), shardCount);
+    }
+
+    private CustomerShard shardFor(String customerName) {
+        return shards.get(shardIndex(customerName, shards.size()));
+    }
+
+    /**
+     * Find a customer by name.
+     * Assume that customer names are unique.
+     */
+    Optional<Customer> findByName(String name) {
+        return shardFor(name).findByName(name).join();
+    }
+
+    /**
+     * Get a customer's orders by paymentStatus status.
+     */
+    public Map<Order.PaymentStatus, List<Order>> getOrdersByStatus(String customerName) {
+        return shardFor(customerName).getOrdersByStatus(customerName).join();
+    }
+
+    /**
+     * Get all Orders paid in the given currency.
+     */
+    public List<Order> getAllPaidOrders(CurrencyCode currency) {
+        return gather(s -> s.getAllPaidOrders(currency)).stream()
+                .flatMap(List::stream)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Get all customers that have cancelled at least one order
+     */
+    public List<Customer> getUnhappyCustomers() {
+        return gather(CustomerShard::getUnhappyCustomers).stream()
+                .flatMap(List::stream)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Get the total amount in EUR for all open orders.
+     */
+    public long getOutstandingAmount() {
+        return gather(CustomerShard::getOutstandingAmount).stream()
+                .mapToLong(Long::longValue)
+                .sum();
+    }
+
+    @Override
+    public void close() {
+        shards.forEach(CustomerShard::close);
+    }
+
+    /**
+     * Send the query to all shards at once, then wait for all of them.
+     */
+    private <T> List<T> gather(Function<CustomerShard, CompletableFuture<T>> query) {
+        List<CompletableFuture<T>> results = shards.stream()
+                .map(query)
+                .collect(Collectors.toList());
+        return results.stream()
+                .map(CompletableFuture::join)
+                .collect(Collectors.toList());
+    }
+}
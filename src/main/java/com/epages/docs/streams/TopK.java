@@ -0,0 +1,150 @@
+package com.epages.docs.streams;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.function.ToLongFunction;
+import java.util.stream.Collector;
+
+/**
+ * Collectors keeping the k largest elements of a stream in a bounded heap.
+ *
+ * Replaces {@code sorted(comparator.reversed()).limit(k)}, which sorts all n elements,
+ * with O(n log k) time and O(k) memory. On parallel streams every thread fills its own
+ * heap, the heaps are merged afterwards. The result is sorted largest first.
+ */
+public final class TopK {
+
+    private TopK() {}
+
+    public static <T> Collector<T, ?, List<T>> largest(int k, Comparator<? super T> comparator) {
+        checkK(k);
+        return Collector.of(
+                () -> new PriorityQueue<T>(Math.max(1, k), comparator),
+                (heap, t) -> offer(heap, t, k, comparator),
+                (left, right) -> {
+                    right.forEach(t -> offer(left, t, k, comparator));
+                    return left;
+                },
+                heap -> {
+                    List<T> result = new ArrayList<>(heap);
+                    result.sort(Collections.reverseOrder(comparator));
+                    return result;
+                });
+    }
+
+    /**
+     * Same as {@link #largest(int, Comparator)} for a primitive long key,
+     * which is extracted once per element and never boxed.
+     */
+    public static <T> Collector<T, ?, List<T>> largestByLong(int k, ToLongFunction<? super T> key) {
+        checkK(k);
+        return Collector.of(
+                () -> new LongKeyHeap<T>(k),
+                (heap, t) -> heap.offer(key.applyAsLong(t), t),
+                LongKeyHeap::merge,
+                LongKeyHeap::toList);
+    }
+
+    private static <T> void offer(PriorityQueue<T> heap, T t, int k, Comparator<? super T> comparator) {
+        if (heap.size() < k) {
+            heap.add(t);
+        } else if (k > 0 && comparator.compare(heap.peek(), t) < 0) {
+            heap.poll();
+            heap.add(t);
+        }
+    }
+
+    private static void checkK(int k) {
+        if (k < 0) {
+            throw new IllegalArgumentException("k must not be negative, got " + k);
+        }
+    }
+
+    /**
+     * Binary min-heap of at most k elements, ordered by their keys kept in a long[].
+     */
+    private static final class LongKeyHeap<T> {
+
+        private final long[] keys;
+        private final Object[] values;
+        private int size;
+
+        private LongKeyHeap(int k) {
+            this.keys = new long[k];
+            this.values = new Object[k];
+        }
+
+        void offer(long key, T value) {
+            if (size < keys.length) {
+                keys[size] = key;
+                values[size] = value;
+                siftUp(size++);
+            } else if (size > 0 && keys[0] < key) {
+                keys[0] = key;
+                values[0] = value;
+                siftDown(0);
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        LongKeyHeap<T> merge(LongKeyHeap<T> other) {
+            for (int i = 0; i < other.size; i++) {
+                offer(other.keys[i], (T) other.values[i]);
+            }
+            return this;
+        }
+
+        @SuppressWarnings("unchecked")
+        List<T> toList() {
+            Object[] result = new Object[size];
+            while (size > 0) {
+                result[size - 1] = values[0];
+                size--;
+                keys[0] = keys[size];
+                values[0] = values[size];
+                values[size] = null;
+                siftDown(0);
+            }
+            return (List<T>) new ArrayList<>(Arrays.asList(result));
+        }
+
+        private void siftUp(int i) {
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (keys[parent] <= keys[i]) {
+                    return;
+                }
+                swap(i, parent);
+                i = parent;
+            }
+        }
+
+        private void siftDown(int i) {
+            while (true) {
+                int left = 2 * i + 1;
+                if (left >= size) {
+                    return;
+                }
+                int smallest = left + 1 < size && keys[left + 1] < keys[left] ? left + 1 : left;
+                if (keys[i] <= keys[smallest]) {
+                    return;
+                }
+                swap(i, smallest);
+                i = smallest;
+            }
+        }
+
+        private void swap(int i, int j) {
+            long key = keys[i];
+            keys[i] = keys[j];
+            keys[j] = key;
+            Object value = values[i];
+            values[i] = values[j];
+            values[j] = value;
+        }
+    }
+}
@@ -7,6 +7,10 @@ import lombok.AllArgsConstructor;
 import org.assertj.core.api.Assertions;
 import org.junit.runner.RunWith;
 
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+
 import static org.assertj.core.api.Assertions.assertThat;
 
 /**
@@ -14,6 +18,7 @@ import static org.assertj.core.api.Assertions.assertThat;
  *
  * This is an proof of concept modelling of some of Haskell's type classes for numbers.
  * It implements the type classes Eq and Ord, Num and Bounded and the instances for Int.
+ * IntNum is the same for primitive ints, as an explicitly passed dictionary.
  *
  * Some of this code will look weird because the concepts are different and there is
  * a lot of shoehorning required.
@@ -75,6 +80,11 @@ public class InterfacesAndHaskellTypeClasses {
         default T min(T v) {
             return this.lessThan(v) ? getThis(): v;
         }
+
+        // bridge to the JDK sorting and searching, one lessEqual call if a > b, two otherwise
+        static <T extends Ord<T>> Comparator<T> comparator() {
+            return (a, b) -> a.lessEqual(b) ? (b.lessEqual(a) ? 0 : -1) : 1;
+        }
     }
 
     // does not make too much sense as instance methods
@@ -131,8 +141,25 @@ public class InterfacesAndHaskellTypeClasses {
         private final static Int MIN_VALUE = new Int(Integer.MIN_VALUE);
         private final static Int MAX_VALUE = new Int(Integer.MAX_VALUE);
 
+        // like Integer.valueOf, small values are shared instead of allocated
+        private final static int CACHE_LOW = -128;
+        private final static Int[] CACHE = new Int[256];
+
+        static {
+            for (int i = 0; i < CACHE.length; i++) {
+                CACHE[i] = i + CACHE_LOW == 0 ? ZERO : new Int(i + CACHE_LOW);
+            }
+        }
+
+        // compares the ints directly, without going through Ord and CompareResult
+        final static Comparator<Int> ORDER = (a, b) -> Integer.compare(a.value, b.value);
+
         private final int value;
 
+        static Int valueOf(int value) {
+            return value >= CACHE_LOW && value < CACHE_LOW + CACHE.length ? CACHE[value - CACHE_LOW] : new Int(value);
+        }
+
         @Override
         public Int getThis() {
             return this;
@@ -148,6 +175,38 @@ public class InterfacesAndHaskellTypeClasses {
             return this.value <= v.value;
         }
 
+        // overriding the rest of Ord, so no comparison goes through the chain of default methods
+
+        @Override
+        public CompareResult compare(Int v) {
+            return this.value < v.value ? CompareResult.LT : this.value == v.value ? CompareResult.EQ : CompareResult.GT;
+        }
+
+        @Override
+        public boolean lessThan(Int v) {
+            return this.value < v.value;
+        }
+
+        @Override
+        public boolean greaterEqual(Int v) {
+            return this.value >= v.value;
+        }
+
+        @Override
+        public boolean greaterThan(Int v) {
+            return this.value > v.value;
+        }
+
+        @Override
+        public Int max(Int v) {
+            return this.value >= v.value ? this : v;
+        }
+
+        @Override
+        public Int min(Int v) {
+            return this.value < v.value ? this : v;
+        }
+
         @Override
         public Int zero() {
             return ZERO;
@@ -155,27 +214,33 @@ public class InterfacesAndHaskellTypeClasses {
 
         @Override
         public Int negate() {
-            return new Int(-value);
+            return valueOf(-value);
+        }
+
+        // not via negate(), which would allocate an intermediate Int
+        @Override
+        public Int minus(Int v) {
+            return valueOf(this.value - v.value);
         }
 
         @Override
         public Int plus(Int v) {
-            return new Int(this.value + v.value);
+            return valueOf(this.value + v.value);
         }
 
         @Override
         public Int multiply(Int v) {
-            return new Int(this.value * v.value);
+            return valueOf(this.value * v.value);
         }
 
         @Override
         public Int abs() {
-            return new Int(Math.abs(this.value));
+            return valueOf(Math.abs(this.value));
         }
 
         @Override
         public Int signum() {
-            return new Int(Integer.signum(this.value));
+            return valueOf(Integer.signum(this.value));
         }
 
         @Override
@@ -189,6 +254,142 @@ public class InterfacesAndHaskellTypeClasses {
         }
     }
 
+    // Num and Ord specialized for int, passed around as a dictionary instead of being
+    // implemented by the values themselves, so generic code does not allocate per operation.
+    interface IntNum {
+        // minimal complete definition:
+        //   all except negate or minus, and lessEqual
+
+        int zero();
+
+        default int negate(int a) {
+            return minus(zero(), a);
+        }
+
+        default int minus(int a, int b) {
+            return plus(a, negate(b));
+        }
+
+        int plus(int a, int b);
+
+        int multiply(int a, int b);
+
+        int abs(int a);
+
+        int signum(int a);
+
+        boolean lessEqual(int a, int b);
+
+        default int max(int a, int b) {
+            return lessEqual(b, a) ? a : b;
+        }
+
+        default int min(int a, int b) {
+            return lessEqual(a, b) ? a : b;
+        }
+    }
+
+    // the dictionary with the same semantics as Int
+    enum IntInstance implements IntNum {
+        INSTANCE;
+
+        @Override
+        public int zero() {
+            return 0;
+        }
+
+        @Override
+        public int negate(int a) {
+            return -a;
+        }
+
+        @Override
+        public int minus(int a, int b) {
+            return a - b;
+        }
+
+        @Override
+        public int plus(int a, int b) {
+            return a + b;
+        }
+
+        @Override
+        public int multiply(int a, int b) {
+            return a * b;
+        }
+
+        @Override
+        public int abs(int a) {
+            return Math.abs(a);
+        }
+
+        @Override
+        public int signum(int a) {
+            return Integer.signum(a);
+        }
+
+        @Override
+        public boolean lessEqual(int a, int b) {
+            return a <= b;
+        }
+    }
+
+    // generic algorithms take the dictionary as an argument
+    static int sum(IntNum num, int... values) {
+        int sum = num.zero();
+        for (int value : values) {
+            sum = num.plus(sum, value);
+        }
+        return sum;
+    }
+
+    static int maximum(IntNum num, int first, int... values) {
+        int max = first;
+        for (int value : values) {
+            max = num.max(max, value);
+        }
+        return max;
+    }
+
+    // sorting and searching for any Ord, with a specialization for Int, timed by OrdSortTiming
+
+    static <T extends Ord<T>> void sort(T[] values) {
+        Arrays.sort(values, Ord.comparator());
+    }
+
+    static void sort(Int[] values) {
+        Arrays.sort(values, Int.ORDER);
+    }
+
+    // index of the first value not less than key, values.length if there is none
+    static <T extends Ord<T>> int lowerBound(T[] sorted, T key) {
+        int low = 0;
+        int high = sorted.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (sorted[mid].lessThan(key)) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    static int lowerBound(Int[] sorted, Int key) {
+        int low = 0;
+        int high = sorted.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (sorted[mid].value < key.value) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
     // to make testing easy for now
     @Property
     public void test_everything(int n0, int m0) {
@@ -322,4 +523,74 @@ public class InterfacesAndHaskellTypeClasses {
     public void maxBound(int n) {
         assertThat(new Int(n).maxBound().value).isEqualTo(Integer.MAX_VALUE);
     }
-}
\ No newline at end of file
+
+    @Property
+    public void valueOf_is_cached(@InRange(minInt = -128, maxInt = 127) int n) {
+        assertThat(Int.valueOf(n)).isSameAs(Int.valueOf(n));
+        assertThat(Int.valueOf(n).value).isEqualTo(n);
+    }
+
+    @Property
+    public void valueOf(int n) {
+        assertThat(Int.valueOf(n).value).isEqualTo(n);
+    }
+
+    @Property
+    public void intNum_agrees_with_Int(int n, int m) {
+        IntNum num = IntInstance.INSTANCE;
+        Int a = new Int(n);
+        Int b = new Int(m);
+
+        assertThat(num.plus(n, m)).isEqualTo(a.plus(b).value);
+        assertThat(num.minus(n, m)).isEqualTo(a.minus(b).value);
+        assertThat(num.multiply(n, m)).isEqualTo(a.multiply(b).value);
+        assertThat(num.negate(n)).isEqualTo(a.negate().value);
+        assertThat(num.abs(n)).isEqualTo(a.abs().value);
+        assertThat(num.signum(n)).isEqualTo(a.signum().value);
+        assertThat(num.lessEqual(n, m)).isEqualTo(a.lessEqual(b));
+        assertThat(num.max(n, m)).isEqualTo(a.max(b).value);
+        assertThat(num.min(n, m)).isEqualTo(a.min(b).value);
+    }
+
+    @Property
+    public void sum(int n, int m, int o) {
+        assertThat(sum(IntInstance.INSTANCE, n, m, o)).isEqualTo(n + m + o);
+    }
+
+    @Property
+    public void maximum(int n, int m, int o) {
+        assertThat(maximum(IntInstance.INSTANCE, n, m, o)).isEqualTo(Math.max(n, Math.max(m, o)));
+    }
+
+    @Property
+    public void comparator_agrees_with_Integer_compare(int n, int m) {
+        assertThat(Integer.signum(Ord.<Int>comparator().compare(new Int(n), new Int(m)))).isEqualTo(Integer.compare(n, m));
+        assertThat(Int.ORDER.compare(new Int(n), new Int(m))).isEqualTo(Integer.compare(n, m));
+    }
+
+    @Property
+    public void compare(int n, int m) {
+        CompareResult expected = n < m ? CompareResult.LT : n == m ? CompareResult.EQ : CompareResult.GT;
+        assertThat(new Int(n).compare(new Int(m))).isEqualTo(expected);
+    }
+
+    @Property
+    public void sort_and_lowerBound(long seed, int key) {
+        int[] expected = new Random(seed).ints(100).toArray();
+        Int[] values = Arrays.stream(expected).mapToObj(Int::valueOf).toArray(Int[]::new);
+        Int[] generic = values.clone();
+
+        Arrays.sort(expected);
+        sort(values);
+        InterfacesAndHaskellTypeClasses.<Int>sort(generic);
+
+        for (int i = 0; i < expected.length; i++) {
+            assertThat(values[i].value).isEqualTo(expected[i]);
+            assertThat(generic[i].value).isEqualTo(expected[i]);
+        }
+        int index = lowerBound(values, Int.valueOf(key));
+        assertThat(InterfacesAndHaskellTypeClasses.<Int>lowerBound(values, Int.valueOf(key))).isEqualTo(index);
+        assertThat(index == expected.length || expected[index] >= key).isTrue();
+        assertThat(index == 0 || expected[index - 1] < key).isTrue();
+    }
+}
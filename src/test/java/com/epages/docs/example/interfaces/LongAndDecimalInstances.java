@@ -0,0 +1,420 @@
+package com.epages.docs.example.interfaces;
+
+import com.epages.docs.example.interfaces.InterfacesAndHaskellTypeClasses.Bounded;
+import com.epages.docs.example.interfaces.InterfacesAndHaskellTypeClasses.Num;
+import com.epages.docs.example.interfaces.InterfacesAndHaskellTypeClasses.Ord;
+import com.pholser.junit.quickcheck.Property;
+import com.pholser.junit.quickcheck.generator.InRange;
+import com.pholser.junit.quickcheck.runner.JUnitQuickcheck;
+import lombok.AllArgsConstructor;
+import org.junit.runner.RunWith;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+/**
+ * More instances of the type classes in {@link InterfacesAndHaskellTypeClasses}, this time for money.
+ *
+ * Int64 and Decimal never overflow silently, every operation that does not fit into
+ * a long throws an ArithmeticException. Summing many values only pays for the checks
+ * if the bounds of the values do not already rule out an overflow.
+ *
+ * Like the other instances in this package, these are examples next to their properties, not library code.
+ */
+@RunWith(JUnitQuickcheck.class)
+public class LongAndDecimalInstances {
+
+    @AllArgsConstructor
+    static class Int64 implements Num<Int64>, Bounded<Int64>, Ord<Int64> {
+
+        private final static Int64 ZERO = new Int64(0);
+        private final static Int64 MIN_VALUE = new Int64(Long.MIN_VALUE);
+        private final static Int64 MAX_VALUE = new Int64(Long.MAX_VALUE);
+
+        private final long value;
+
+        @Override
+        public Int64 getThis() {
+            return this;
+        }
+
+        @Override
+        public boolean equal(Int64 v) {
+            return this.value == v.value;
+        }
+
+        @Override
+        public boolean lessEqual(Int64 v) {
+            return this.value <= v.value;
+        }
+
+        @Override
+        public Int64 zero() {
+            return ZERO;
+        }
+
+        @Override
+        public Int64 negate() {
+            return new Int64(Math.negateExact(value));
+        }
+
+        @Override
+        public Int64 minus(Int64 v) {
+            return new Int64(Math.subtractExact(this.value, v.value));
+        }
+
+        @Override
+        public Int64 plus(Int64 v) {
+            return new Int64(Math.addExact(this.value, v.value));
+        }
+
+        @Override
+        public Int64 multiply(Int64 v) {
+            return new Int64(Math.multiplyExact(this.value, v.value));
+        }
+
+        @Override
+        public Int64 abs() {
+            return value < 0 ? negate() : this;
+        }
+
+        @Override
+        public Int64 signum() {
+            return new Int64(Long.signum(value));
+        }
+
+        @Override
+        public Int64 minBound() {
+            return MIN_VALUE;
+        }
+
+        @Override
+        public Int64 maxBound() {
+            return MAX_VALUE;
+        }
+
+        // n values of at most |max| each cannot overflow if n * |max| fits into a long
+        static long sum(long... values) {
+            return sum(values, 0, values.length);
+        }
+
+        static long sum(long[] values, int from, int to) {
+            long maxAbs = 0;
+            for (int i = from; i < to; i++) {
+                if (values[i] == Long.MIN_VALUE) {
+                    return sumExact(values, from, to);
+                }
+                maxAbs = Math.max(maxAbs, Math.abs(values[i]));
+            }
+            if (to <= from || maxAbs <= Long.MAX_VALUE / (to - from)) {
+                long sum = 0;
+                for (int i = from; i < to; i++) {
+                    sum += values[i];
+                }
+                return sum;
+            }
+            return sumExact(values, from, to);
+        }
+
+        // only the final sum has to fit, however the values are ordered or split up
+        private static long sumExact(long[] values, int from, int to) {
+            long[] wide = new long[2];
+            addWide(wide, values, from, to);
+            return narrow(wide);
+        }
+
+        // 128 bit sums as { high, low }: overflows of the low long are counted in the high one
+        static void addWide(long[] wide, long[] values, int from, int to) {
+            for (int i = from; i < to; i++) {
+                addWide(wide, values[i] < 0 ? -1 : 0, values[i]);
+            }
+        }
+
+        static void addWide(long[] wide, long high, long low) {
+            long sum = wide[1] + low;
+            // unsigned carry out of the low long
+            wide[0] += high + (Long.compareUnsigned(sum, wide[1]) < 0 ? 1 : 0);
+            wide[1] = sum;
+        }
+
+        static long narrow(long[] wide) {
+            if (wide[0] != wide[1] >> 63) {
+                throw new ArithmeticException("long overflow");
+            }
+            return wide[1];
+        }
+    }
+
+    // fixed-point number: unscaled * 10^-scale
+    // results of operations on two Decimals have the larger of both scales
+    static class Decimal implements Num<Decimal>, Bounded<Decimal>, Ord<Decimal> {
+
+        private final static long[] POWERS_OF_TEN = new long[19];
+
+        static {
+            POWERS_OF_TEN[0] = 1;
+            for (int i = 1; i < POWERS_OF_TEN.length; i++) {
+                POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10;
+            }
+        }
+
+        private final long unscaled;
+        private final int scale;
+
+        Decimal(long unscaled, int scale) {
+            if (scale < 0 || scale >= POWERS_OF_TEN.length) {
+                throw new IllegalArgumentException("scale has to be within 0.." + (POWERS_OF_TEN.length - 1) + ", was " + scale);
+            }
+            this.unscaled = unscaled;
+            this.scale = scale;
+        }
+
+        @Override
+        public Decimal getThis() {
+            return this;
+        }
+
+        @Override
+        public boolean equal(Decimal v) {
+            return compareTo(v) == 0;
+        }
+
+        @Override
+        public boolean lessEqual(Decimal v) {
+            return compareTo(v) <= 0;
+        }
+
+        @Override
+        public Decimal zero() {
+            return new Decimal(0, scale);
+        }
+
+        @Override
+        public Decimal negate() {
+            return new Decimal(Math.negateExact(unscaled), scale);
+        }
+
+        @Override
+        public Decimal minus(Decimal v) {
+            int s = Math.max(scale, v.scale);
+            return new Decimal(Math.subtractExact(rescale(s), v.rescale(s)), s);
+        }
+
+        @Override
+        public Decimal plus(Decimal v) {
+            int s = Math.max(scale, v.scale);
+            return new Decimal(Math.addExact(rescale(s), v.rescale(s)), s);
+        }
+
+        // the exact product has scale + v.scale digits, round it half even to the larger scale.
+        // the product before rounding may not fit into a long even if the result does
+        @Override
+        public Decimal multiply(Decimal v) {
+            int s = Math.max(scale, v.scale);
+            long divisor = POWERS_OF_TEN[scale + v.scale - s];
+            long product;
+            try {
+                product = Math.multiplyExact(unscaled, v.unscaled);
+            } catch (ArithmeticException e) {
+                return new Decimal(multiplyWide(v, divisor), s);
+            }
+            long quotient = product / divisor;
+            long remainder = product % divisor;
+            long twice = Math.abs(remainder) * 2;
+            if (twice > divisor || (twice == divisor && (quotient & 1) != 0)) {
+                quotient += Long.signum(product);
+            }
+            return new Decimal(quotient, s);
+        }
+
+        private long multiplyWide(Decimal v, long divisor) {
+            BigInteger[] division = BigInteger.valueOf(unscaled).multiply(BigInteger.valueOf(v.unscaled))
+                    .divideAndRemainder(BigInteger.valueOf(divisor));
+            BigInteger quotient = division[0];
+            int half = division[1].abs().shiftLeft(1).compareTo(BigInteger.valueOf(divisor));
+            if (half > 0 || (half == 0 && quotient.testBit(0))) {
+                quotient = quotient.add(BigInteger.valueOf(division[1].signum()));
+            }
+            return quotient.longValueExact();
+        }
+
+        @Override
+        public Decimal abs() {
+            return unscaled < 0 ? negate() : this;
+        }
+
+        @Override
+        public Decimal signum() {
+            return new Decimal(Long.signum(unscaled) * POWERS_OF_TEN[scale], scale);
+        }
+
+        @Override
+        public Decimal minBound() {
+            return new Decimal(Long.MIN_VALUE, scale);
+        }
+
+        @Override
+        public Decimal maxBound() {
+            return new Decimal(Long.MAX_VALUE, scale);
+        }
+
+        BigDecimal toBigDecimal() {
+            return BigDecimal.valueOf(unscaled, scale);
+        }
+
+        static Decimal sum(int scale, Decimal... values) {
+            long[] unscaled = new long[values.length];
+            for (int i = 0; i < values.length; i++) {
+                unscaled[i] = values[i].rescale(scale);
+            }
+            return new Decimal(Int64.sum(unscaled), scale);
+        }
+
+        private long rescale(int newScale) {
+            if (newScale < scale) {
+                throw new ArithmeticException("cannot reduce scale " + scale + " to " + newScale + " without rounding");
+            }
+            return Math.multiplyExact(unscaled, POWERS_OF_TEN[newScale - scale]);
+        }
+
+        // if the value with the smaller scale does not fit into the larger one,
+        // its magnitude is larger than any value of the other
+        private int compareTo(Decimal v) {
+            int s = Math.max(scale, v.scale);
+            long a;
+            long b;
+            try {
+                a = rescale(s);
+            } catch (ArithmeticException e) {
+                return Long.signum(unscaled);
+            }
+            try {
+                b = v.rescale(s);
+            } catch (ArithmeticException e) {
+                return -Long.signum(v.unscaled);
+            }
+            return Long.compare(a, b);
+        }
+    }
+
+    @Property
+    public void plus(long n, long m) {
+        BigInteger exact = BigInteger.valueOf(n).add(BigInteger.valueOf(m));
+        Throwable thrown = catchThrowable(() -> new Int64(n).plus(new Int64(m)));
+
+        if (exact.bitLength() < 64) {
+            assertThat(new Int64(n).plus(new Int64(m)).value).isEqualTo(exact.longValue());
+        } else {
+            assertThat(thrown).isInstanceOf(ArithmeticException.class);
+        }
+    }
+
+    @Property
+    public void multiply(long n, long m) {
+        BigInteger exact = BigInteger.valueOf(n).multiply(BigInteger.valueOf(m));
+        Throwable thrown = catchThrowable(() -> new Int64(n).multiply(new Int64(m)));
+
+        if (exact.bitLength() < 64) {
+            assertThat(new Int64(n).multiply(new Int64(m)).value).isEqualTo(exact.longValue());
+        } else {
+            assertThat(thrown).isInstanceOf(ArithmeticException.class);
+        }
+    }
+
+    @Property
+    public void abs_of_min_value_overflows(long n) {
+        assertThat(catchThrowable(() -> new Int64(n).minBound().abs())).isInstanceOf(ArithmeticException.class);
+    }
+
+    @Property
+    public void sum_overflowing_in_between(long n) {
+        Throwable thrown = catchThrowable(() -> Int64.sum(Long.MAX_VALUE, 1, n, -1));
+
+        if (n > 0) {
+            assertThat(thrown).isInstanceOf(ArithmeticException.class);
+        } else {
+            assertThat(Int64.sum(Long.MAX_VALUE, 1, n, -1)).isEqualTo(Long.MAX_VALUE + n);
+        }
+        assertThat(Int64.sum(Long.MIN_VALUE, -1, Long.MAX_VALUE, 1)).isEqualTo(-1L);
+    }
+
+    @Property
+    public void sum_fast_path(@InRange(minLong = -1_000_000_000L, maxLong = 1_000_000_000L) long n,
+                              @InRange(minLong = -1_000_000_000L, maxLong = 1_000_000_000L) long m) {
+        assertThat(Int64.sum(n, m, n)).isEqualTo(n + m + n);
+    }
+
+    @Property
+    public void sum_checked(long n) {
+        Throwable thrown = catchThrowable(() -> Int64.sum(Long.MAX_VALUE, n, 1));
+
+        if (n >= 0) {
+            assertThat(thrown).isInstanceOf(ArithmeticException.class);
+        } else {
+            assertThat(Int64.sum(Long.MAX_VALUE, n, 1)).isEqualTo(Long.MAX_VALUE + n + 1);
+        }
+    }
+
+    @Property
+    public void decimal_plus(@InRange(minLong = -1_000_000_000_000L, maxLong = 1_000_000_000_000L) long n,
+                             @InRange(minLong = -1_000_000_000_000L, maxLong = 1_000_000_000_000L) long m,
+                             @InRange(minInt = 0, maxInt = 4) int scale) {
+        Decimal a = new Decimal(n, 2);
+        Decimal b = new Decimal(m, scale);
+
+        assertThat(a.plus(b).toBigDecimal()).isEqualByComparingTo(a.toBigDecimal().add(b.toBigDecimal()));
+        assertThat(a.minus(b).toBigDecimal()).isEqualByComparingTo(a.toBigDecimal().subtract(b.toBigDecimal()));
+    }
+
+    @Property
+    public void decimal_multiply(@InRange(minLong = -1_000_000_000L, maxLong = 1_000_000_000L) long n,
+                                 @InRange(minLong = -1_000_000_000L, maxLong = 1_000_000_000L) long m) {
+        Decimal a = new Decimal(n, 2);
+        Decimal b = new Decimal(m, 4);
+        BigDecimal expected = a.toBigDecimal().multiply(b.toBigDecimal()).setScale(4, RoundingMode.HALF_EVEN);
+
+        assertThat(a.multiply(b).toBigDecimal()).isEqualByComparingTo(expected);
+    }
+
+    @Property
+    public void decimal_multiply_wide(@InRange(minLong = -1_000_000_000_000L, maxLong = 1_000_000_000_000L) long n,
+                                      @InRange(minLong = -1_000_000_000_000L, maxLong = 1_000_000_000_000L) long m) {
+        Decimal a = new Decimal(n, 6);
+        Decimal b = new Decimal(m, 6);
+        BigDecimal expected = a.toBigDecimal().multiply(b.toBigDecimal()).setScale(6, RoundingMode.HALF_EVEN);
+
+        assertThat(a.multiply(b).toBigDecimal()).isEqualByComparingTo(expected);
+    }
+
+    @Property
+    public void decimal_multiply_overflows(@InRange(minLong = 10_000_000_000_000_000L) long n) {
+        assertThat(catchThrowable(() -> new Decimal(n, 0).multiply(new Decimal(n, 0)))).isInstanceOf(ArithmeticException.class);
+    }
+
+    @Property
+    public void decimal_rejects_scale(@InRange(minInt = 19) int scale) {
+        assertThat(catchThrowable(() -> new Decimal(1, scale))).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Property
+    public void decimal_compare(long n, long m, @InRange(minInt = 0, maxInt = 18) int scale) {
+        Decimal a = new Decimal(n, 0);
+        Decimal b = new Decimal(m, scale);
+
+        assertThat(a.lessEqual(b)).isEqualTo(a.toBigDecimal().compareTo(b.toBigDecimal()) <= 0);
+        assertThat(a.equal(b)).isEqualTo(a.toBigDecimal().compareTo(b.toBigDecimal()) == 0);
+    }
+
+    @Property
+    public void decimal_sum(@InRange(minLong = -1_000_000_000L, maxLong = 1_000_000_000L) long n,
+                            @InRange(minLong = -1_000_000_000L, maxLong = 1_000_000_000L) long m) {
+        Decimal sum = Decimal.sum(2, new Decimal(n, 2), new Decimal(m, 1), new Decimal(n, 0));
+
+        assertThat(sum.toBigDecimal()).isEqualByComparingTo(
+                BigDecimal.valueOf(n, 2).add(BigDecimal.valueOf(m, 1)).add(BigDecimal.valueOf(n, 0)));
+    }
+}
@@ -0,0 +1,66 @@
+package com.epages.docs.example.interfaces;
+
+import com.epages.docs.example.interfaces.InterfacesAndHaskellTypeClasses.Int;
+import com.epages.docs.example.interfaces.InterfacesAndHaskellTypeClasses.Ord;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.SplittableRandom;
+import java.util.function.Consumer;
+
+/**
+ * Repeatable timing of sorting through Ord against sorting plain Integers, not a JUnit test.
+ *
+ * Run the main with the number of values and rounds, e.g. {@code 1000000 15}. Every round sorts
+ * a fresh copy of the same values; the first third of the rounds is warmup and not reported.
+ * Without JMH this cannot prove what the JIT inlines, it only shows the cost per comparison in
+ * the same JVM, so compare the medians, not single runs.
+ */
+public class OrdSortTiming {
+
+    private OrdSortTiming() {}
+
+    public static void main(String[] args) {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 15;
+
+        int[] values = new SplittableRandom(42).ints(n).toArray();
+        Int[] ints = Arrays.stream(values).mapToObj(Int::valueOf).toArray(Int[]::new);
+        Integer[] integers = Arrays.stream(values).boxed().toArray(Integer[]::new);
+
+        time("Integer[], Integer::compare", integers, rounds, a -> Arrays.sort(a, Integer::compare));
+        time("Int[], Int.ORDER", ints, rounds, InterfacesAndHaskellTypeClasses::sort);
+        time("Int[], Ord.comparator()", ints, rounds, a -> Arrays.sort(a, Ord.<Int>comparator()));
+        time("Int[], compare() and CompareResult", ints, rounds, a -> Arrays.sort(a, byCompare()));
+    }
+
+    // the default-method chain the comparator bridge avoids
+    private static Comparator<Int> byCompare() {
+        return (a, b) -> {
+            switch (a.compare(b)) {
+                case LT:
+                    return -1;
+                case GT:
+                    return 1;
+                default:
+                    return 0;
+            }
+        };
+    }
+
+    private static <T> void time(String name, T[] values, int rounds, Consumer<T[]> sort) {
+        int warmup = rounds / 3;
+        long[] millis = new long[rounds - warmup];
+        for (int round = 0; round < rounds; round++) {
+            T[] copy = values.clone();
+            long start = System.nanoTime();
+            sort.accept(copy);
+            long elapsed = (System.nanoTime() - start) / 1_000_000;
+            if (round >= warmup) {
+                millis[round - warmup] = elapsed;
+            }
+        }
+        Arrays.sort(millis);
+        System.out.printf("%-36s min %4d ms, median %4d ms%n", name, millis[0], millis[millis.length / 2]);
+    }
+}
@@ -0,0 +1,570 @@
+package com.epages.docs.example.interfaces;
+
+import com.epages.docs.example.interfaces.InterfacesAndHaskellTypeClasses.Int;
+import com.epages.docs.example.interfaces.InterfacesAndHaskellTypeClasses.IntInstance;
+import com.epages.docs.example.interfaces.InterfacesAndHaskellTypeClasses.IntNum;
+import com.epages.docs.example.interfaces.InterfacesAndHaskellTypeClasses.Num;
+import com.epages.docs.example.interfaces.InterfacesAndHaskellTypeClasses.Ord;
+import com.epages.docs.example.interfaces.LongAndDecimalInstances.Int64;
+import com.pholser.junit.quickcheck.Property;
+import com.pholser.junit.quickcheck.generator.InRange;
+import com.pholser.junit.quickcheck.runner.JUnitQuickcheck;
+import lombok.AllArgsConstructor;
+import lombok.RequiredArgsConstructor;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.OptionalInt;
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.BinaryOperator;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Bulk operations written once against the type classes.
+ *
+ * Every reduction is available sequentially and as a fork-join task. Splitting the input
+ * is only allowed because plus, multiply, min and max are associative, and zero() is the
+ * identity of plus. The primitive instances have their own paths that never box.
+ * Int64 sums only throw if the total does not fit into a long, whether parallel or not.
+ */
+@RunWith(JUnitQuickcheck.class)
+public class TypeClassReductions {
+
+    // below this size a fork-join task does not split any further
+    private static final int THRESHOLD = 1 << 12;
+
+    static <T extends Num<T>> T sum(T zero, List<T> values) {
+        return values.isEmpty() ? zero : zero.plus(reduce(values, 0, values.size(), T::plus));
+    }
+
+    static <T extends Num<T>> T parallelSum(T zero, List<T> values) {
+        return values.isEmpty() ? zero : zero.plus(parallelReduce(values, T::plus));
+    }
+
+    // Num has no identity for multiply, so there is no product of nothing
+    static <T extends Num<T>> Optional<T> product(List<T> values) {
+        return values.isEmpty() ? Optional.empty() : Optional.of(reduce(values, 0, values.size(), T::multiply));
+    }
+
+    static <T extends Num<T>> Optional<T> parallelProduct(List<T> values) {
+        return values.isEmpty() ? Optional.empty() : Optional.of(parallelReduce(values, T::multiply));
+    }
+
+    static <T extends Ord<T>> Optional<T> minimum(List<T> values) {
+        return values.isEmpty() ? Optional.empty() : Optional.of(reduce(values, 0, values.size(), T::min));
+    }
+
+    static <T extends Ord<T>> Optional<T> parallelMinimum(List<T> values) {
+        return values.isEmpty() ? Optional.empty() : Optional.of(parallelReduce(values, T::min));
+    }
+
+    static <T extends Ord<T>> Optional<T> maximum(List<T> values) {
+        return values.isEmpty() ? Optional.empty() : Optional.of(reduce(values, 0, values.size(), T::max));
+    }
+
+    static <T extends Ord<T>> Optional<T> parallelMaximum(List<T> values) {
+        return values.isEmpty() ? Optional.empty() : Optional.of(parallelReduce(values, T::max));
+    }
+
+    static <T extends Ord<T>> List<T> sorted(List<T> values) {
+        List<T> sorted = new ArrayList<>(values);
+        sorted.sort(Ord.comparator());
+        return sorted;
+    }
+
+    static <T extends Ord<T>> List<T> parallelSorted(List<T> values) {
+        return values.parallelStream().sorted(Ord.<T>comparator()).collect(Collectors.toList());
+    }
+
+    // the k largest values, largest first, keeping no more than k values per task around
+    static <T extends Ord<T>> List<T> topK(List<T> values, int k) {
+        return topK(values, 0, values.size(), requireK(k));
+    }
+
+    static <T extends Ord<T>> List<T> parallelTopK(List<T> values, int k) {
+        return ForkJoinPool.commonPool().invoke(new TopK<>(values, 0, values.size(), requireK(k)));
+    }
+
+    // IntNum: the same reductions on int[], without boxing
+
+    static int sum(IntNum num, int[] values) {
+        return values.length == 0 ? num.zero() : num.plus(num.zero(), reduce(num, values, 0, values.length, IntOperation.PLUS));
+    }
+
+    static int parallelSum(IntNum num, int[] values) {
+        return values.length == 0 ? num.zero() : num.plus(num.zero(), parallelReduce(num, values, IntOperation.PLUS));
+    }
+
+    static OptionalInt product(IntNum num, int[] values) {
+        return values.length == 0 ? OptionalInt.empty() : OptionalInt.of(reduce(num, values, 0, values.length, IntOperation.MULTIPLY));
+    }
+
+    static OptionalInt parallelProduct(IntNum num, int[] values) {
+        return values.length == 0 ? OptionalInt.empty() : OptionalInt.of(parallelReduce(num, values, IntOperation.MULTIPLY));
+    }
+
+    static OptionalInt minimum(IntNum num, int[] values) {
+        return values.length == 0 ? OptionalInt.empty() : OptionalInt.of(reduce(num, values, 0, values.length, IntOperation.MIN));
+    }
+
+    static OptionalInt parallelMinimum(IntNum num, int[] values) {
+        return values.length == 0 ? OptionalInt.empty() : OptionalInt.of(parallelReduce(num, values, IntOperation.MIN));
+    }
+
+    static OptionalInt maximum(IntNum num, int[] values) {
+        return values.length == 0 ? OptionalInt.empty() : OptionalInt.of(reduce(num, values, 0, values.length, IntOperation.MAX));
+    }
+
+    static OptionalInt parallelMaximum(IntNum num, int[] values) {
+        return values.length == 0 ? OptionalInt.empty() : OptionalInt.of(parallelReduce(num, values, IntOperation.MAX));
+    }
+
+    // merge sort by num.lessEqual, the order of the instance might not be the natural one
+    static int[] sorted(IntNum num, int[] values) {
+        int[] sorted = values.clone();
+        sort(num, sorted, new int[sorted.length], 0, sorted.length);
+        return sorted;
+    }
+
+    static int[] parallelSorted(IntNum num, int[] values) {
+        int[] sorted = values.clone();
+        ForkJoinPool.commonPool().invoke(new IntSort(num, sorted, new int[sorted.length], 0, sorted.length));
+        return sorted;
+    }
+
+    static int[] topK(IntNum num, int[] values, int k) {
+        return topK(num, values, 0, values.length, requireK(k));
+    }
+
+    static int[] parallelTopK(IntNum num, int[] values, int k) {
+        return ForkJoinPool.commonPool().invoke(new IntTopK(num, values, 0, values.length, requireK(k)));
+    }
+
+    // Int64: every chunk is summed into 128 bits, only the total has to fit into a long,
+    // so the result does not depend on how the values are split up
+
+    static long parallelSum(long[] values) {
+        return Int64.narrow(ForkJoinPool.commonPool().invoke(new Int64Sum(values, 0, values.length)));
+    }
+
+    // reductions of non-empty ranges, so no identity is needed for min, max and multiply
+
+    private static <T> T reduce(List<T> values, int from, int to, BinaryOperator<T> op) {
+        T result = values.get(from);
+        for (int i = from + 1; i < to; i++) {
+            result = op.apply(result, values.get(i));
+        }
+        return result;
+    }
+
+    private static <T> T parallelReduce(List<T> values, BinaryOperator<T> op) {
+        return ForkJoinPool.commonPool().invoke(new Reduction<>(values, 0, values.size(), op));
+    }
+
+    private static int reduce(IntNum num, int[] values, int from, int to, IntOperation op) {
+        int result = values[from];
+        for (int i = from + 1; i < to; i++) {
+            result = op.apply(num, result, values[i]);
+        }
+        return result;
+    }
+
+    private static int parallelReduce(IntNum num, int[] values, IntOperation op) {
+        IntReduction reduction = new IntReduction(num, values, 0, values.length, op);
+        ForkJoinPool.commonPool().invoke(reduction);
+        return reduction.result;
+    }
+
+    private static void sort(IntNum num, int[] values, int[] buffer, int from, int to) {
+        if (to - from < 2) {
+            return;
+        }
+        int mid = (from + to) >>> 1;
+        sort(num, values, buffer, from, mid);
+        sort(num, values, buffer, mid, to);
+        merge(num, values, buffer, from, mid, to);
+    }
+
+    private static void merge(IntNum num, int[] values, int[] buffer, int from, int mid, int to) {
+        System.arraycopy(values, from, buffer, from, to - from);
+        int left = from;
+        int right = mid;
+        for (int i = from; i < to; i++) {
+            if (right == to || left < mid && num.lessEqual(buffer[left], buffer[right])) {
+                values[i] = buffer[left++];
+            } else {
+                values[i] = buffer[right++];
+            }
+        }
+    }
+
+    // the k largest values, largest first, from a min-heap of k ints
+    private static int[] topK(IntNum num, int[] values, int from, int to, int k) {
+        int[] heap = new int[Math.min(k, to - from)];
+        int size = 0;
+        for (int i = from; i < to; i++) {
+            int value = values[i];
+            if (size < heap.length) {
+                heap[size] = value;
+                siftUp(num, heap, size++);
+            } else if (size > 0 && !num.lessEqual(value, heap[0])) {
+                heap[0] = value;
+                siftDown(num, heap, size);
+            }
+        }
+        int[] result = new int[size];
+        for (int i = size - 1; i >= 0; i--) {
+            result[i] = heap[0];
+            heap[0] = heap[--size];
+            siftDown(num, heap, size);
+        }
+        return result;
+    }
+
+    private static void siftUp(IntNum num, int[] heap, int i) {
+        while (i > 0 && !num.lessEqual(heap[(i - 1) >>> 1], heap[i])) {
+            swap(heap, i, i = (i - 1) >>> 1);
+        }
+    }
+
+    private static void siftDown(IntNum num, int[] heap, int size) {
+        int i = 0;
+        while (2 * i + 1 < size) {
+            int child = 2 * i + 1;
+            if (child + 1 < size && !num.lessEqual(heap[child], heap[child + 1])) {
+                child++;
+            }
+            if (num.lessEqual(heap[i], heap[child])) {
+                return;
+            }
+            swap(heap, i, i = child);
+        }
+    }
+
+    private static int requireK(int k) {
+        if (k < 0) {
+            throw new IllegalArgumentException("k must not be negative: " + k);
+        }
+        return k;
+    }
+
+    private static void swap(int[] values, int i, int j) {
+        int value = values[i];
+        values[i] = values[j];
+        values[j] = value;
+    }
+
+    private static <T extends Ord<T>> List<T> topK(List<T> values, int from, int to, int k) {
+        PriorityQueue<T> heap = new PriorityQueue<>(Math.max(1, k), Ord.<T>comparator());
+        for (int i = from; i < to; i++) {
+            T value = values.get(i);
+            if (heap.size() < k) {
+                heap.add(value);
+            } else if (k > 0 && heap.peek().lessThan(value)) {
+                heap.poll();
+                heap.add(value);
+            }
+        }
+        List<T> result = new ArrayList<>(heap.size());
+        while (!heap.isEmpty()) {
+            result.add(heap.poll());
+        }
+        Collections.reverse(result);
+        return result;
+    }
+
+    private enum IntOperation {
+        PLUS {
+            @Override
+            int apply(IntNum num, int a, int b) {
+                return num.plus(a, b);
+            }
+        },
+        MULTIPLY {
+            @Override
+            int apply(IntNum num, int a, int b) {
+                return num.multiply(a, b);
+            }
+        },
+        MIN {
+            @Override
+            int apply(IntNum num, int a, int b) {
+                return num.min(a, b);
+            }
+        },
+        MAX {
+            @Override
+            int apply(IntNum num, int a, int b) {
+                return num.max(a, b);
+            }
+        };
+
+        abstract int apply(IntNum num, int a, int b);
+    }
+
+    @SuppressWarnings("serial")
+    @AllArgsConstructor
+    private static final class Reduction<T> extends RecursiveTask<T> {
+        private final List<T> values;
+        private final int from;
+        private final int to;
+        private final BinaryOperator<T> op;
+
+        @Override
+        protected T compute() {
+            if (to - from <= THRESHOLD) {
+                return reduce(values, from, to, op);
+            }
+            int mid = (from + to) >>> 1;
+            Reduction<T> left = new Reduction<>(values, from, mid, op);
+            left.fork();
+            T right = new Reduction<>(values, mid, to, op).compute();
+            return op.apply(left.join(), right);
+        }
+    }
+
+    // the result stays an int field, a RecursiveTask<Integer> would box every partial result
+    @SuppressWarnings("serial")
+    @RequiredArgsConstructor
+    private static final class IntReduction extends RecursiveAction {
+        private final IntNum num;
+        private final int[] values;
+        private final int from;
+        private final int to;
+        private final IntOperation op;
+        // read after join, which makes it visible
+        private int result;
+
+        @Override
+        protected void compute() {
+            if (to - from <= THRESHOLD) {
+                result = reduce(num, values, from, to, op);
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            IntReduction left = new IntReduction(num, values, from, mid, op);
+            left.fork();
+            IntReduction right = new IntReduction(num, values, mid, to, op);
+            right.compute();
+            left.join();
+            result = op.apply(num, left.result, right.result);
+        }
+    }
+
+    @SuppressWarnings("serial")
+    @AllArgsConstructor
+    private static final class Int64Sum extends RecursiveTask<long[]> {
+        private final long[] values;
+        private final int from;
+        private final int to;
+
+        @Override
+        protected long[] compute() {
+            if (to - from <= THRESHOLD) {
+                long[] wide = new long[2];
+                Int64.addWide(wide, values, from, to);
+                return wide;
+            }
+            int mid = (from + to) >>> 1;
+            Int64Sum left = new Int64Sum(values, from, mid);
+            left.fork();
+            long[] right = new Int64Sum(values, mid, to).compute();
+            long[] wide = left.join();
+            Int64.addWide(wide, right[0], right[1]);
+            return wide;
+        }
+    }
+
+    @SuppressWarnings("serial")
+    @AllArgsConstructor
+    private static final class IntSort extends RecursiveAction {
+        private final IntNum num;
+        private final int[] values;
+        private final int[] buffer;
+        private final int from;
+        private final int to;
+
+        @Override
+        protected void compute() {
+            if (to - from <= THRESHOLD) {
+                sort(num, values, buffer, from, to);
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new IntSort(num, values, buffer, from, mid), new IntSort(num, values, buffer, mid, to));
+            merge(num, values, buffer, from, mid, to);
+        }
+    }
+
+    @SuppressWarnings("serial")
+    @AllArgsConstructor
+    private static final class IntTopK extends RecursiveTask<int[]> {
+        private final IntNum num;
+        private final int[] values;
+        private final int from;
+        private final int to;
+        private final int k;
+
+        @Override
+        protected int[] compute() {
+            if (to - from <= THRESHOLD) {
+                return topK(num, values, from, to, k);
+            }
+            int mid = (from + to) >>> 1;
+            IntTopK left = new IntTopK(num, values, from, mid, k);
+            left.fork();
+            int[] right = new IntTopK(num, values, mid, to, k).compute();
+            int[] leftTop = left.join();
+            int[] merged = Arrays.copyOf(right, right.length + leftTop.length);
+            System.arraycopy(leftTop, 0, merged, right.length, leftTop.length);
+            return topK(num, merged, 0, merged.length, k);
+        }
+    }
+
+    @SuppressWarnings("serial")
+    @AllArgsConstructor
+    private static final class TopK<T extends Ord<T>> extends RecursiveTask<List<T>> {
+        private final List<T> values;
+        private final int from;
+        private final int to;
+        private final int k;
+
+        @Override
+        protected List<T> compute() {
+            if (to - from <= THRESHOLD) {
+                return topK(values, from, to, k);
+            }
+            int mid = (from + to) >>> 1;
+            TopK<T> left = new TopK<>(values, from, mid, k);
+            left.fork();
+            List<T> merged = new ArrayList<>(new TopK<>(values, mid, to, k).compute());
+            merged.addAll(left.join());
+            return topK(merged, 0, merged.size(), k);
+        }
+    }
+
+    // large enough inputs to actually fork
+
+    private static int[] randomInts(long seed, int bound) {
+        return new Random(seed).ints(5 * THRESHOLD, -bound, bound).toArray();
+    }
+
+    private static List<Int> boxed(int[] values) {
+        return IntStream.of(values).mapToObj(Int::valueOf).collect(Collectors.toList());
+    }
+
+    @Property
+    public void sum(long seed) {
+        int[] values = randomInts(seed, 1000);
+        Int expected = Int.valueOf(IntStream.of(values).sum());
+
+        assertThat(sum(Int.valueOf(0), boxed(values)).equal(expected)).isTrue();
+        assertThat(parallelSum(Int.valueOf(0), boxed(values)).equal(expected)).isTrue();
+        assertThat(sum(IntInstance.INSTANCE, values)).isEqualTo(IntStream.of(values).sum());
+        assertThat(parallelSum(IntInstance.INSTANCE, values)).isEqualTo(IntStream.of(values).sum());
+    }
+
+    @Property
+    public void product(long seed) {
+        int[] values = randomInts(seed, 3);
+        int product = IntStream.of(values).reduce(1, (a, b) -> a * b);
+        Int expected = Int.valueOf(product);
+
+        assertThat(product(boxed(values)).get().equal(expected)).isTrue();
+        assertThat(parallelProduct(boxed(values)).get().equal(expected)).isTrue();
+        assertThat(product(IntInstance.INSTANCE, values).getAsInt()).isEqualTo(product);
+        assertThat(parallelProduct(IntInstance.INSTANCE, values).getAsInt()).isEqualTo(product);
+    }
+
+    @Property
+    public void minimum_and_maximum(long seed) {
+        int[] values = randomInts(seed, Integer.MAX_VALUE);
+        int primitiveMin = IntStream.of(values).min().getAsInt();
+        int primitiveMax = IntStream.of(values).max().getAsInt();
+        Int min = Int.valueOf(primitiveMin);
+        Int max = Int.valueOf(primitiveMax);
+
+        assertThat(minimum(boxed(values)).get().equal(min)).isTrue();
+        assertThat(parallelMinimum(boxed(values)).get().equal(min)).isTrue();
+        assertThat(maximum(boxed(values)).get().equal(max)).isTrue();
+        assertThat(parallelMaximum(boxed(values)).get().equal(max)).isTrue();
+        assertThat(minimum(IntInstance.INSTANCE, values).getAsInt()).isEqualTo(primitiveMin);
+        assertThat(parallelMinimum(IntInstance.INSTANCE, values).getAsInt()).isEqualTo(primitiveMin);
+        assertThat(maximum(IntInstance.INSTANCE, values).getAsInt()).isEqualTo(primitiveMax);
+        assertThat(parallelMaximum(IntInstance.INSTANCE, values).getAsInt()).isEqualTo(primitiveMax);
+    }
+
+    @Property
+    public void sorted_and_topK(long seed, @InRange(minInt = 0, maxInt = 20) int k) {
+        List<Int> values = boxed(randomInts(seed, Integer.MAX_VALUE));
+        List<Int> sorted = sorted(values);
+
+        for (int i = 1; i < sorted.size(); i++) {
+            assertThat(sorted.get(i - 1).lessEqual(sorted.get(i))).isTrue();
+        }
+        List<Int> parallel = parallelSorted(values);
+        for (int i = 0; i < sorted.size(); i++) {
+            assertThat(parallel.get(i).equal(sorted.get(i))).isTrue();
+        }
+
+        List<Int> top = topK(values, k);
+        List<Int> parallelTop = parallelTopK(values, k);
+        assertThat(top).hasSize(k);
+        assertThat(parallelTop).hasSize(k);
+        for (int i = 0; i < k; i++) {
+            assertThat(top.get(i).equal(sorted.get(sorted.size() - 1 - i))).isTrue();
+            assertThat(parallelTop.get(i).equal(top.get(i))).isTrue();
+        }
+    }
+
+    @Property
+    public void primitive_sorted_and_topK(long seed, @InRange(minInt = 0, maxInt = 20) int k) {
+        int[] values = randomInts(seed, Integer.MAX_VALUE);
+        int[] expected = IntStream.of(values).sorted().toArray();
+        int[] expectedTop = IntStream.range(0, k).map(i -> expected[expected.length - 1 - i]).toArray();
+
+        assertThat(sorted(IntInstance.INSTANCE, values)).isEqualTo(expected);
+        assertThat(parallelSorted(IntInstance.INSTANCE, values)).isEqualTo(expected);
+        assertThat(topK(IntInstance.INSTANCE, values, k)).isEqualTo(expectedTop);
+        assertThat(parallelTopK(IntInstance.INSTANCE, values, k)).isEqualTo(expectedTop);
+    }
+
+    @Property
+    public void topK_rejects_negative_k(@InRange(maxInt = -1) int k) {
+        int[] values = randomInts(k, 100);
+
+        assertThatThrownBy(() -> topK(boxed(values), k)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> parallelTopK(boxed(values), k)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> topK(IntInstance.INSTANCE, values, k)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> parallelTopK(IntInstance.INSTANCE, values, k)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Property
+    public void parallel_int64_sum_overflowing_in_between(long seed) {
+        long[] values = new Random(seed).longs(5 * THRESHOLD, 0, Long.MAX_VALUE).toArray();
+        long[] negated = LongStream.of(values).map(v -> -v).toArray();
+        long[] both = LongStream.concat(LongStream.of(values), LongStream.of(negated)).toArray();
+
+        assertThat(parallelSum(both)).isEqualTo(Int64.sum(both)).isEqualTo(0);
+    }
+
+    @Property
+    public void parallel_int64_sum(long seed) {
+        long[] values = new Random(seed).longs(5 * THRESHOLD, -1_000_000_000_000L, 1_000_000_000_000L).toArray();
+
+        assertThat(parallelSum(values)).isEqualTo(Int64.sum(values));
+    }
+}
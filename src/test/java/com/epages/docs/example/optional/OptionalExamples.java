@@ -1,5 +1,6 @@
 package com.epages.docs.example.optional;
 
+import com.epages.docs.streams.Optionals;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Lists;
 import lombok.AllArgsConstructor;
@@ -46,6 +47,19 @@ public class OptionalExamples {
 
     }
 
+    // plain beans with nullable getters, the way a lot of older APIs look
+    @Getter
+    @AllArgsConstructor
+    static class LegacyProduct {
+        private final LegacyPrice price;
+    }
+
+    @Getter
+    @AllArgsConstructor
+    static class LegacyPrice {
+        private final Currency currency;
+    }
+
     private static Currency EUR = Currency.getInstance(GERMANY);
 
     private final static Message<Product> message = new Message<>(Optional.empty());
@@ -156,6 +170,45 @@ public class OptionalExamples {
         assertThat(currency).isEmpty();
     }
 
+    @Theory
+    public void path_without_intermediate_optionals(@FromDataPoints("bad") Message<Product> message) {
+        Currency currency =
+                Optionals.optionalPath(Message<Product>::getPayload) // Message -> Product
+                .thenOptional(Product::getPrice)                    // Product -> Price
+                .thenOptional(Price::getCurrency)                   // Price -> Currency
+                .orElse(message, EUR);                              // Currency
+
+        assertThat(currency).isEqualTo(EUR);
+    }
+
+    @Theory
+    public void path_to_good_currency(@FromDataPoints("good") Message<Product> message) {
+        Optionals.Path<Message<Product>, Currency> currency =
+                Optionals.optionalPath(Message<Product>::getPayload)
+                .thenOptional(Product::getPrice)
+                .thenOptional(Price::getCurrency);
+
+        assertThat(currency.orNull(message)).isEqualTo(EUR);
+        assertThat(Optionals.flatMapPresent(good().stream(), currency).count()).isEqualTo(1);
+        assertThat(Optionals.flatMapPresent(bad().stream(), currency).count()).isEqualTo(0);
+    }
+
+    @Test
+    public void path_over_nullable_getters() {
+        // Optional.ofNullable(product).map(LegacyProduct::getPrice).map(LegacyPrice::getCurrency)
+        // would wrap every hop, the path only null checks them
+        Optionals.Path<LegacyProduct, Currency> currency =
+                Optionals.path(LegacyProduct::getPrice) // LegacyProduct -> LegacyPrice, or null
+                .then(LegacyPrice::getCurrency);        // LegacyPrice -> Currency, or null
+
+        assertThat(currency.orNull(new LegacyProduct(new LegacyPrice(EUR)))).isEqualTo(EUR);
+        assertThat(currency.orNull(new LegacyProduct(null))).isNull();
+        assertThat(currency.orElse(new LegacyProduct(new LegacyPrice(null)), EUR)).isEqualTo(EUR);
+        assertThat(Optionals.mapNonNull(
+                Arrays.asList(new LegacyProduct(null), new LegacyProduct(new LegacyPrice(EUR))).stream(),
+                currency::orNull).count()).isEqualTo(1);
+    }
+
     @Test
     public void map() {
         Optional<Integer> value =
@@ -213,7 +266,7 @@ public class OptionalExamples {
 
         @Override
         public String toString() {
-            return String.format("{} {}", amount, currency);
+            return String.format("%s %s", amount, currency);
         }
     }
 
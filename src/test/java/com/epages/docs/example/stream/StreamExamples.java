@@ -1,5 +1,8 @@
 package com.epages.docs.example.stream;
 
+import com.epages.docs.streams.KeyedCollectors;
+import com.epages.docs.streams.Optionals;
+import com.epages.docs.streams.TopK;
 import com.google.common.collect.Lists;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
@@ -112,6 +115,18 @@ public class StreamExamples {
                 .limit(10);
     }
 
+    @Test
+    public void stream_operations_without_optionals() {
+        Stream<Product> stream = new ArrayList<Product>().stream();
+
+        Stream<Currency> limit =
+                Optionals.flatMapPresent(stream,                  // Stream<Product>
+                        Optionals.optionalPath(Product::getPrice) // Product -> Price
+                        .thenOptional(Price::getCurrency))        // Price -> Currency
+                .filter(c -> c.equals(EUR))
+                .limit(10);
+    }
+
 
     @Test
     public void stream_example() {
@@ -126,6 +141,17 @@ public class StreamExamples {
                 .collect(Collectors.toList());
     }
 
+    @Test
+    public void stream_example_top_k() {
+        Stream<Product2> stream = new ArrayList<Product2>().stream();
+
+        // same result as sorted(...).limit(10), without sorting everything
+        stream
+                .map(Product2::getPrice)
+                .filter(p -> p.getCurrency().equals(EUR))
+                .collect(TopK.largest(10, (e1, e2) -> Double.compare(e2.getAmount(), e1.getAmount())));
+    }
+
     @Test
     public void peek() {
         Optional<String> reduce =
@@ -158,4 +184,16 @@ public class StreamExamples {
                 .collect(Collectors.groupingBy(p -> p.getPrice().getCurrency()));
     }
 
-}
\ No newline at end of file
+    @Test
+    public void groupingBy_small_domain() {
+        Stream<Product2> stream = new ArrayList<Product2>().stream();
+
+        // java.util.Currency is no enum, so the groups end up in a HashMap,
+        // enum keys like CurrencyCode would be kept in an array indexed by ordinal. Sums stay primitive longs
+        stream
+                .collect(KeyedCollectors.summingLong(
+                        p -> p.getPrice().getCurrency(),
+                        p -> Math.round(p.getPrice().getAmount() * 100)));
+    }
+
+}
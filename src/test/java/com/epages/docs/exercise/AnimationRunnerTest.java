@@ -0,0 +1,37 @@
+package com.epages.docs.exercise;
+
+import com.epages.docs.exercise.AnimationRunner.Options;
+import com.epages.docs.exercise.AnimationRunner.Report;
+import org.junit.Test;
+
+import java.io.IOException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class AnimationRunnerTest {
+
+    @Test
+    public void parses_options_with_defaults() {
+        Options options = Options.parse("--width=200", "--generator=sinus", "--sink=null");
+
+        assertThat(options.getWidth()).isEqualTo(200);
+        assertThat(options.getHeight()).isEqualTo(45);
+        assertThat(options.getGenerator()).isEqualTo("sinus");
+        assertThat(options.getSink()).isEqualTo("null");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejects_unknown_options() {
+        Options.parse("--colour=red");
+    }
+
+    @Test
+    public void reports_measured_frames_only() throws IOException {
+        Report report = new AnimationRunner(Options.parse("--width=10", "--height=5", "--frames=7", "--warmup=3", "--sink=null")).run();
+
+        assertThat(report.getFrames()).isEqualTo(7);
+        assertThat(report.getCells()).isEqualTo(7 * 10 * 5);
+        // clear screen and 5 rows of 10 cells, each followed by a space, and a newline
+        assertThat(report.getBytes()).isEqualTo(7 * (7 + 5 * 21));
+    }
+}
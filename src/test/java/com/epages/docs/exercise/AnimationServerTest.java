@@ -0,0 +1,109 @@
+package com.epages.docs.exercise;
+
+import com.epages.docs.exercise.AnimationServer.Animation;
+import com.epages.docs.exercise.Draw.BoundedDiagonalMovesProvider;
+import com.epages.docs.exercise.Draw.Position;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static java.util.Collections.singletonList;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class AnimationServerTest {
+
+    private AnimationServer server;
+
+    @Before
+    public void start() throws IOException {
+        server = new AnimationServer(0, singletonList(
+                new Animation("diagonal", () -> new BoundedDiagonalMovesProvider(10, 10), Position.of(10, 10), 5)));
+    }
+
+    @After
+    public void stop() throws IOException {
+        server.close();
+    }
+
+    @Test
+    public void viewers_get_frames_of_the_chosen_animation() throws IOException {
+        try (Socket first = connect("diagonal"); Socket second = connect("diagonal")) {
+            assertThat(readUntil(first, "X")).contains("Animations: diagonal");
+            assertThat(readUntil(second, "\u001B[2J", "X")).contains("\u001B[2J");
+        }
+    }
+
+    @Test
+    public void unknown_animation_shows_menu_again() throws IOException {
+        try (Socket socket = connect("unknown")) {
+            assertThat(readUntil(socket, "> ", "> ")).contains("Animations: diagonal");
+        }
+    }
+
+    @Test
+    public void stalled_viewer_does_not_hold_back_others() throws IOException {
+        try (Socket stalled = connect("diagonal"); Socket viewer = connect("diagonal")) {
+            stalled.setReceiveBufferSize(1);
+            for (int i = 0; i < 20; i++) {
+                assertThat(readUntil(viewer, "\u001B[2J")).isNotEmpty();
+            }
+        }
+    }
+
+    @Test
+    public void failing_animation_is_restarted() throws IOException {
+        AtomicInteger generators = new AtomicInteger();
+        try (AnimationServer flaky = new AnimationServer(0, singletonList(new Animation("flaky", () -> {
+            BoundedDiagonalMovesProvider moves = new BoundedDiagonalMovesProvider(10, 10);
+            boolean fails = generators.incrementAndGet() == 1;
+            return () -> {
+                if (fails) {
+                    throw new IllegalStateException("broken generator");
+                }
+                return moves.get();
+            };
+        }, Position.of(10, 10), 5)));
+             Socket viewer = connect(flaky, "flaky")) {
+            assertThat(readUntil(viewer, "\u001B[2J", "X")).contains("X");
+            assertThat(generators.get()).isGreaterThan(1);
+        }
+    }
+
+    private Socket connect(String animation) throws IOException {
+        return connect(server, animation);
+    }
+
+    private static Socket connect(AnimationServer server, String animation) throws IOException {
+        Socket socket = new Socket("localhost", server.getPort());
+        socket.setSoTimeout(5000);
+        OutputStream out = socket.getOutputStream();
+        out.write((animation + "\n").getBytes(StandardCharsets.US_ASCII));
+        out.flush();
+        return socket;
+    }
+
+    private static String readUntil(Socket socket, String... markers) throws IOException {
+        InputStream in = socket.getInputStream();
+        StringBuilder read = new StringBuilder();
+        int from = 0;
+        for (String marker : markers) {
+            int found;
+            while ((found = read.indexOf(marker, from)) < 0) {
+                int c = in.read();
+                if (c < 0) {
+                    return read.toString();
+                }
+                read.append((char) c);
+            }
+            from = found + marker.length();
+        }
+        return read.toString();
+    }
+}
@@ -0,0 +1,174 @@
+package com.epages.docs.exercise;
+
+import com.epages.docs.exercise.BoardFlow.Subscriber;
+import com.epages.docs.exercise.BoardFlow.Subscription;
+import com.epages.docs.exercise.Draw.Board;
+import com.epages.docs.exercise.Draw.BoundedDiagonalMovesProvider;
+import com.epages.docs.exercise.Draw.Position;
+import lombok.SneakyThrows;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class BoardFlowTest {
+
+    @Test
+    public void all_subscribers_get_all_boards() {
+        BoardPublisher publisher = new BoardPublisher(new BoundedDiagonalMovesProvider(10, 10), 10, 2);
+        CountingSubscriber first = new CountingSubscriber(1);
+        CountingSubscriber second = new CountingSubscriber(3);
+
+        publisher.subscribe(first);
+        publisher.subscribe(second);
+
+        assertThat(first.awaitCount()).isEqualTo(10);
+        assertThat(second.awaitCount()).isEqualTo(10);
+    }
+
+    @Test
+    public void sample_passes_every_nth_board() {
+        BoardPublisher publisher = new BoardPublisher(new BoundedDiagonalMovesProvider(10, 10), 10);
+        CountingSubscriber subscriber = new CountingSubscriber(1);
+
+        BoardFlow.sample(publisher, 3).subscribe(subscriber);
+
+        assertThat(subscriber.awaitCount()).isEqualTo(4);
+    }
+
+    @Test
+    public void latest_does_not_slow_down_generator() {
+        BoardPublisher publisher = new BoardPublisher(new BoundedDiagonalMovesProvider(10, 10), 1000, 2);
+        CountingSubscriber fast = new CountingSubscriber(1);
+        CountingSubscriber stalled = new CountingSubscriber(0);
+
+        publisher.subscribe(fast);
+        BoardFlow.latest(publisher).subscribe(stalled);
+
+        // completing the stalled subscriber has to wait until it requests the latest board
+        assertThat(fast.awaitCount()).isEqualTo(1000);
+        assertThat(stalled.count.get()).isEqualTo(0);
+    }
+
+    @Test
+    public void pace_keeps_all_boards_apart() {
+        BoardPublisher publisher = new BoardPublisher(new BoundedDiagonalMovesProvider(10, 10), 5);
+        CountingSubscriber subscriber = new CountingSubscriber(1);
+
+        long start = System.nanoTime();
+        BoardFlow.pace(publisher, 20, TimeUnit.MILLISECONDS).subscribe(subscriber);
+
+        assertThat(subscriber.awaitCount()).isEqualTo(5);
+        assertThat(System.nanoTime() - start).isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(80));
+    }
+
+    @Test
+    public void failing_generator_terminates_all_subscribers() {
+        AtomicInteger calls = new AtomicInteger();
+        BoundedDiagonalMovesProvider generator = new BoundedDiagonalMovesProvider(10, 10);
+        BoardPublisher publisher = new BoardPublisher(() -> {
+            if (calls.incrementAndGet() > 3) {
+                throw new IllegalStateException("broken");
+            }
+            return generator.get();
+        }, 10, 2);
+        CountingSubscriber first = new CountingSubscriber(1);
+        CountingSubscriber second = new CountingSubscriber(2);
+
+        publisher.subscribe(first);
+        publisher.subscribe(second);
+
+        assertThat(first.awaitError()).hasMessage("broken");
+        assertThat(second.awaitError()).hasMessage("broken");
+        assertThat(first.count.get()).isEqualTo(3);
+        assertThat(second.count.get()).isEqualTo(3);
+
+        CountingSubscriber late = new CountingSubscriber(1);
+        publisher.subscribe(late);
+        assertThat(late.awaitError()).hasMessage("broken");
+    }
+
+    @Test
+    public void printing_stops_when_the_stream_fails() {
+        AtomicInteger boards = new AtomicInteger();
+        BoundedDiagonalMovesProvider generator = new BoundedDiagonalMovesProvider(10, 10);
+        // delivers on the subscribing thread
+        BoardPublisher publisher = new BoardPublisher(() -> {
+            boards.incrementAndGet();
+            return generator.get();
+        }, 10, 1, Runnable::run);
+        PrintStream broken = new PrintStream(new OutputStream() {
+            @Override
+            public void write(int b) throws IOException {
+                throw new IOException("gone");
+            }
+        });
+
+        publisher.subscribe(BoardFlow.printTo(broken, Position.of(10, 10), new FrameCache(1024)));
+        publisher.subscribe(BoardFlow.printTo(broken, Position.of(10, 10)));
+
+        assertThat(boards.get()).isEqualTo(2);
+    }
+
+    private static class CountingSubscriber implements Subscriber<Board> {
+        private final long batch;
+        private final AtomicInteger count = new AtomicInteger();
+        private final CountDownLatch completed = new CountDownLatch(1);
+        private volatile Throwable error;
+        private Subscription subscription;
+        private long outstanding;
+
+        private CountingSubscriber(long batch) {
+            this.batch = batch;
+        }
+
+        @Override
+        public void onSubscribe(Subscription subscription) {
+            this.subscription = subscription;
+            outstanding = batch;
+            if (batch > 0) {
+                subscription.request(batch);
+            }
+        }
+
+        @Override
+        public void onNext(Board item) {
+            count.incrementAndGet();
+            if (--outstanding == 0) {
+                outstanding = batch;
+                subscription.request(batch);
+            }
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            error = throwable;
+            completed.countDown();
+        }
+
+        @Override
+        public void onComplete() {
+            completed.countDown();
+        }
+
+        @SneakyThrows
+        int awaitCount() {
+            assertThat(completed.await(5, TimeUnit.SECONDS)).isTrue();
+            assertThat(error).isNull();
+            return count.get();
+        }
+
+        @SneakyThrows
+        Throwable awaitError() {
+            assertThat(completed.await(5, TimeUnit.SECONDS)).isTrue();
+            assertThat(error).isNotNull();
+            return error;
+        }
+    }
+}
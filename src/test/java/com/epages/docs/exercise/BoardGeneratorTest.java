@@ -0,0 +1,38 @@
+package com.epages.docs.exercise;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class BoardGeneratorTest {
+
+    @Test
+    public void generates_same_board_as_nested_loops() {
+        assertThat(new BoardGenerator(44, BoardGenerator.diagonals(44)).toString()).isEqualTo(Draw.generateBoard());
+    }
+
+    @Test
+    public void generates_board_in_slices_of_rows() {
+        BoardGenerator generator = new BoardGenerator(1000, BoardGenerator.sinus(1000));
+        byte[] whole = generator.generate();
+        byte[] slices = new byte[whole.length];
+
+        int half = 500 * generator.getRowWidth();
+        generator.generate(0, 500, slices, 0);
+        generator.generate(500, 1000, slices, half);
+
+        assertThat(Arrays.equals(slices, whole)).isTrue();
+    }
+
+    @Test
+    public void generates_same_board_sequentially() {
+        BoardGenerator generator = new BoardGenerator(1000, BoardGenerator.sinus(1000));
+        byte[] sequential = new byte[1000 * generator.getRowWidth()];
+
+        generator.generateSequentially(0, 1000, sequential, 0);
+
+        assertThat(Arrays.equals(sequential, generator.generate())).isTrue();
+    }
+}
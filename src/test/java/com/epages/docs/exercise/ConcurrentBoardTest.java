@@ -0,0 +1,85 @@
+package com.epages.docs.exercise;
+
+import com.epages.docs.exercise.Draw.Board;
+import com.epages.docs.exercise.Draw.BoundedDiagonalMovesProvider;
+import com.epages.docs.exercise.Draw.Canvas;
+import com.epages.docs.exercise.Draw.Position;
+import org.junit.Test;
+
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ConcurrentBoardTest {
+
+    private static final Position DIMENSIONS = Position.of(99, 49);
+    private static final int MOVERS = 8;
+    private static final int MOVES = 10_000;
+
+    @Test
+    public void movers_draw_on_shared_board_concurrently() {
+        ConcurrentBoard shared = new ConcurrentBoard(DIMENSIONS);
+        Board expected = new Board();
+
+        IntStream.range(0, MOVERS).parallel().forEach(i -> move(mover(i), shared));
+        IntStream.range(0, MOVERS).forEach(i -> move(mover(i), expected::put));
+
+        assertThat(shared.toString()).isEqualTo(expected.toString(DIMENSIONS));
+        assertThat(shared.snapshot().positions()).isEqualTo(expected.positions());
+    }
+
+    @Test
+    public void snapshot_keeps_version_until_next_point() {
+        ConcurrentBoard board = new ConcurrentBoard(DIMENSIONS);
+        assertThat(board.put(1, 1)).isTrue();
+        long version = board.snapshot().getVersion();
+
+        assertThat(board.snapshot().getVersion()).isEqualTo(version);
+        assertThat(board.put(1, 1)).isFalse();
+        assertThat(board.snapshot().getVersion()).isEqualTo(version);
+        board.put(2, 1);
+        Board snapshot = board.snapshot();
+        assertThat(snapshot.getVersion()).isGreaterThan(version);
+        assertThat(snapshot.get(2, 1)).isPresent();
+        assertThat(board.contains(2, 1)).isTrue();
+    }
+
+    @Test
+    public void snapshot_never_shows_a_point_without_the_points_drawn_before() throws InterruptedException {
+        for (int round = 0; round < 20; round++) {
+            ConcurrentBoard board = new ConcurrentBoard(DIMENSIONS);
+            // the first point of each pair lies in a word copied before the word of the second one
+            Thread writer = new Thread(() -> {
+                for (long x = 0; x <= DIMENSIONS.getX(); x++) {
+                    board.put(x, 0);
+                    board.put(x, DIMENSIONS.getY());
+                }
+            });
+            writer.start();
+            while (writer.isAlive()) {
+                Board snapshot = board.snapshot();
+                for (long x = 0; x <= DIMENSIONS.getX(); x++) {
+                    if (snapshot.get(x, DIMENSIONS.getY()).isPresent()) {
+                        assertThat(snapshot.get(x, 0)).as("first point of pair %s", x).isPresent();
+                    }
+                }
+            }
+            writer.join();
+        }
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void rejects_points_outside() {
+        new ConcurrentBoard(DIMENSIONS).put(100, 0);
+    }
+
+    private static BoundedDiagonalMovesProvider mover(int i) {
+        return new BoundedDiagonalMovesProvider(DIMENSIONS.getY(), DIMENSIONS.getX(), i * 7, i * 3);
+    }
+
+    private static void move(BoundedDiagonalMovesProvider mover, Canvas canvas) {
+        for (int i = 0; i < MOVES; i++) {
+            mover.drawOn(canvas);
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.epages.docs.exercise;
+
+import com.epages.docs.exercise.Draw.Board;
+import com.epages.docs.exercise.Draw.Position;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class FrameCacheTest {
+
+    private static final Position DIMENSIONS = Position.of(3, 3);
+
+    @Test
+    public void copies_share_version_until_changed() {
+        Board board = new Board();
+        board.put(1, 1);
+        Board copy = board.copy();
+
+        assertThat(copy.getVersion()).isEqualTo(board.getVersion());
+        copy.put(1, 1);
+        assertThat(copy.getVersion()).isEqualTo(board.getVersion());
+        copy.put(2, 2);
+        assertThat(copy.getVersion()).isNotEqualTo(board.getVersion());
+    }
+
+    @Test
+    public void viewers_of_same_board_share_rendering() {
+        FrameCache cache = new FrameCache(1024);
+        Board board = new Board();
+        board.put(1, 2);
+
+        try (FrameCache.Frame first = cache.acquire(board, DIMENSIONS);
+             FrameCache.Frame second = cache.acquire(board.copy(), DIMENSIONS)) {
+            assertThat(second.getBytes()).isSameAs(first.getBytes());
+            assertThat(new String(first.getBytes())).isEqualTo(board.toString(DIMENSIONS));
+        }
+        assertThat(cache.frames()).isEqualTo(1);
+    }
+
+    @Test
+    public void evicts_released_frames_only() {
+        // one rendering of a 4x4 board is 4 * (4 * 2 + 1) bytes
+        FrameCache cache = new FrameCache(36);
+        Board board = new Board();
+
+        FrameCache.Frame acquired = cache.acquire(board, DIMENSIONS);
+        for (int i = 0; i < 3; i++) {
+            board.put(i, i);
+            cache.acquire(board, DIMENSIONS).close();
+        }
+
+        assertThat(cache.frames()).isEqualTo(1);
+        assertThat(cache.size()).isEqualTo(36);
+        assertThat(acquired.getBytes()).isNotNull();
+        acquired.close();
+        board.put(3, 3);
+        cache.acquire(board, DIMENSIONS).close();
+        assertThat(cache.frames()).isEqualTo(1);
+    }
+
+    @Test
+    public void closing_twice_releases_once() {
+        FrameCache cache = new FrameCache(36);
+        Board board = new Board();
+        Board blank = board.copy();
+
+        FrameCache.Frame shared = cache.acquire(board, DIMENSIONS);
+        FrameCache.Frame twice = cache.acquire(board, DIMENSIONS);
+        twice.close();
+        twice.close();
+        board.put(1, 1);
+        cache.acquire(board, DIMENSIONS).close();
+
+        // the blank rendering is still held by the other viewer, so the new one was evicted
+        try (FrameCache.Frame again = cache.acquire(blank, DIMENSIONS)) {
+            assertThat(again.getBytes()).isSameAs(shared.getBytes());
+        }
+        shared.close();
+        board.put(2, 2);
+        cache.acquire(board, DIMENSIONS).close();
+        assertThat(cache.frames()).isEqualTo(1);
+        assertThat(cache.size()).isEqualTo(36);
+    }
+
+    @Test
+    public void renders_up_to_largest_point_without_dimensions() {
+        FrameCache cache = new FrameCache(1024);
+        Board board = new Board();
+        board.put(1, 2);
+
+        try (FrameCache.Frame frame = cache.acquire(board, null)) {
+            assertThat(new String(frame.getBytes())).isEqualTo(board.toString(Position.of(1, 2)));
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.epages.docs.exercise;
+
+import com.epages.docs.exercise.Draw.Board;
+import com.epages.docs.exercise.Draw.BoundedDiagonalMovesProvider;
+import com.epages.docs.exercise.Draw.Position;
+import com.epages.docs.exercise.Draw.StaticSinusMovesSupplier;
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class RunLengthBoardTest {
+
+    private static final Position DIMENSIONS = Position.of(89, 44);
+
+    @Test
+    public void renders_like_board() {
+        BoundedDiagonalMovesProvider diagonals = new BoundedDiagonalMovesProvider(44, 89);
+        Board diagonal = diagonals.get();
+        for (int i = 0; i < 500; i++) {
+            diagonal = diagonals.get();
+        }
+        Board sinus = new StaticSinusMovesSupplier(89, 44, -0.02).get();
+
+        assertThat(RunLengthBoard.of(diagonal).toString(DIMENSIONS)).isEqualTo(diagonal.toString(DIMENSIONS));
+        assertThat(RunLengthBoard.of(sinus).toString(DIMENSIONS)).isEqualTo(sinus.toString(DIMENSIONS));
+        assertThat(RunLengthBoard.of(sinus).toBoard().toString(DIMENSIONS)).isEqualTo(sinus.toString(DIMENSIONS));
+    }
+
+    @Test
+    public void stores_runs_instead_of_points() {
+        Board line = new Board();
+        for (long x = 0; x < 1000; x++) {
+            line.put(x, 7);
+        }
+
+        RunLengthBoard board = RunLengthBoard.of(line);
+        assertThat(board.runCount()).isEqualTo(1);
+        assertThat(board.cardinality()).isEqualTo(1000);
+        assertThat(board.contains(999, 7)).isTrue();
+        assertThat(board.contains(1000, 7)).isFalse();
+        assertThat(board.contains(0, 6)).isFalse();
+    }
+
+    @Test
+    public void union_and_intersection_match_sets() {
+        Random random = new Random(42);
+        for (int round = 0; round < 100; round++) {
+            Set<Position> a = randomPositions(random);
+            Set<Position> b = randomPositions(random);
+            Set<Position> union = new HashSet<>(a);
+            union.addAll(b);
+            Set<Position> intersection = new HashSet<>(a);
+            intersection.retainAll(b);
+
+            assertThat(RunLengthBoard.of(a).union(RunLengthBoard.of(b))).isEqualTo(RunLengthBoard.of(union));
+            assertThat(RunLengthBoard.of(a).intersection(RunLengthBoard.of(b))).isEqualTo(RunLengthBoard.of(intersection));
+        }
+    }
+
+    private static Set<Position> randomPositions(Random random) {
+        Set<Position> positions = new HashSet<>();
+        for (int i = random.nextInt(200); i > 0; i--) {
+            positions.add(Position.of(random.nextInt(30), random.nextInt(10)));
+        }
+        return positions;
+    }
+}
@@ -0,0 +1,47 @@
+package com.epages.docs.streams;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+public class CompactListTest {
+
+    @Test
+    public void should_equal_array_lists() {
+        for (int size = 0; size < 5; size++) {
+            Integer[] elements = new Integer[size];
+            Arrays.setAll(elements, i -> i);
+
+            List<Integer> list = CompactList.of(elements);
+
+            assertThat(list).isEqualTo(Arrays.asList(elements));
+            assertThat(list.hashCode()).isEqualTo(Arrays.asList(elements).hashCode());
+            assertThat(CompactList.copyOf(list)).isSameAs(list);
+        }
+    }
+
+    @Test
+    public void should_be_immutable() {
+        assertThatThrownBy(() -> CompactList.of(1, 2).add(3)).isInstanceOf(UnsupportedOperationException.class);
+        assertThatThrownBy(() -> CompactList.of(1).set(0, 2)).isInstanceOf(UnsupportedOperationException.class);
+    }
+
+    @Test
+    public void should_not_accept_null() {
+        assertThatThrownBy(() -> CompactList.of(1, null)).isInstanceOf(NullPointerException.class);
+    }
+
+    @Test
+    public void should_not_share_array() {
+        Integer[] elements = { 1, 2, 3 };
+        List<Integer> list = CompactList.of(elements);
+
+        elements[0] = 42;
+
+        assertThat(list.get(0)).isEqualTo(1);
+    }
+}
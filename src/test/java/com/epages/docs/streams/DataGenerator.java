@@ -0,0 +1,288 @@
+package com.epages.docs.streams;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+import com.google.common.collect.Maps;
+import com.neovisionaries.i18n.CurrencyCode;
+
+/**
+ * Deterministic synthetic customers, orders and products for load tests.
+ *
+ * Customers are generated lazily, one at a time, each from its own random source seeded by the
+ * generator seed and the customer's index. The same seed gives the same data, also when the
+ * stream is consumed in parallel or only partly, and nothing but the products is held in memory.
+ *
+ * Orders per customer and product popularity follow Zipf distributions, currencies and payment
+ * statuses are drawn by weight. Products are priced in every currency of the mix by its exchange
+ * rate. Invalid orders are placed in a currency none of the products is priced in, so
+ * {@link CustomerService#validateOrder} rejects them.
+ */
+class DataGenerator {
+
+    private static final LocalDateTime START = LocalDateTime.of(2016, 1, 1, 0, 0);
+    private static final long SPAN_SECONDS = 365L * 24 * 60 * 60;
+    private static final List<CurrencyCode> INVALID_CURRENCIES = Arrays.asList(CurrencyCode.CHF, CurrencyCode.JPY, CurrencyCode.SEK);
+
+    private long seed = 42;
+    private long customers = 1000;
+    private int products = 1000;
+    private int maxOrdersPerCustomer = 100;
+    private double orderSkew = 1.2;
+    private double productSkew = 1.0;
+    private int maxLineItems = 5;
+    // EUR exchange rates good enough for synthetic prices
+    private final Map<CurrencyCode, Double> rates = new EnumMap<>(weights(CurrencyCode.EUR, 1.0, CurrencyCode.USD, 1.1, CurrencyCode.GBP, 0.85));
+    private Map<CurrencyCode, Double> currencies = weights(CurrencyCode.EUR, 0.6, CurrencyCode.USD, 0.25, CurrencyCode.GBP, 0.15);
+    private Map<Order.PaymentStatus, Double> statuses = weights(Order.PaymentStatus.OPEN, 0.2, Order.PaymentStatus.PAID, 0.7, Order.PaymentStatus.CANCELLED, 0.1);
+    private double invalidOrderRate = 0.01;
+
+    DataGenerator seed(long seed) {
+        this.seed = seed;
+        return this;
+    }
+
+    DataGenerator customers(long customers) {
+        if (customers < 0) {
+            throw new IllegalArgumentException("number of customers must not be negative: " + customers);
+        }
+        this.customers = customers;
+        return this;
+    }
+
+    DataGenerator products(int products) {
+        this.products = requirePositive("number of products", products);
+        return this;
+    }
+
+    /**
+     * Orders per customer, between 1 and {@code max}, the k-th most likely count with probability proportional to 1/k^skew.
+     */
+    DataGenerator ordersPerCustomer(int max, double skew) {
+        this.maxOrdersPerCustomer = requirePositive("maximum orders per customer", max);
+        this.orderSkew = requireSkew(skew);
+        return this;
+    }
+
+    /**
+     * The k-th most popular product is ordered with probability proportional to 1/k^skew.
+     */
+    DataGenerator productSkew(double skew) {
+        this.productSkew = requireSkew(skew);
+        return this;
+    }
+
+    DataGenerator maxLineItems(int maxLineItems) {
+        this.maxLineItems = requirePositive("maximum line items", maxLineItems);
+        return this;
+    }
+
+    /**
+     * Price of one EUR in the given currency, needed before the currency can be used in {@link #currencies}.
+     * EUR, USD and GBP are known already.
+     */
+    DataGenerator rate(CurrencyCode currency, double eurRate) {
+        if (!(eurRate > 0)) {
+            throw new IllegalArgumentException("rate of " + currency + " has to be positive: " + eurRate);
+        }
+        rates.put(currency, eurRate);
+        return this;
+    }
+
+    DataGenerator currencies(Map<CurrencyCode, Double> weights) {
+        for (CurrencyCode currency : weights.keySet()) {
+            if (!rates.containsKey(currency)) {
+                throw new IllegalArgumentException("no rate for " + currency + ", set one with rate() first");
+            }
+        }
+        this.currencies = requireWeights(weights);
+        return this;
+    }
+
+    DataGenerator statuses(Map<Order.PaymentStatus, Double> weights) {
+        this.statuses = requireWeights(weights);
+        return this;
+    }
+
+    DataGenerator invalidOrderRate(double rate) {
+        if (!(rate >= 0 && rate <= 1)) {
+            throw new IllegalArgumentException("invalid order rate must be between 0 and 1: " + rate);
+        }
+        this.invalidOrderRate = rate;
+        return this;
+    }
+
+    /**
+     * The products, most popular first, priced in every currency of the mix.
+     */
+    List<Product> products() {
+        SplittableRandom random = new SplittableRandom(seed);
+        List<Product> products = new ArrayList<>(this.products);
+        for (int i = 0; i < this.products; i++) {
+            long eurCents = 100 + random.nextLong(10_000);
+            Map<CurrencyCode, Long> prices = new EnumMap<>(CurrencyCode.class);
+            for (CurrencyCode currency : currencies.keySet()) {
+                prices.put(currency, Math.round(eurCents * rates.get(currency)));
+            }
+            products.add(new Product("Product " + i, "Synthetic product " + i, Maps.immutableEnumMap(prices)));
+        }
+        return Collections.unmodifiableList(products);
+    }
+
+    /**
+     * Lazily generated customers, sharing the {@link #products()} instances.
+     */
+    Stream<Customer> customers() {
+        Generation generation = new Generation();
+        return LongStream.range(0, customers).mapToObj(generation::customer);
+    }
+
+    /**
+     * Everything depending on the settings, computed once per stream.
+     */
+    private final class Generation {
+        private final List<Product> products = products();
+        private final Zipf orderCounts = new Zipf(maxOrdersPerCustomer, orderSkew);
+        private final Zipf popularity = new Zipf(products.size(), productSkew);
+        private final Weighted<CurrencyCode> currencyMix = new Weighted<>(currencies);
+        private final Weighted<Order.PaymentStatus> statusMix = new Weighted<>(statuses);
+        private final CurrencyCode invalidCurrency = INVALID_CURRENCIES.stream()
+                .filter(c -> !currencies.containsKey(c))
+                .findFirst()
+                .orElseThrow(() -> new IllegalStateException("no currency left for invalid orders"));
+
+        private Customer customer(long index) {
+            SplittableRandom random = new SplittableRandom(seed ^ mix(index));
+            Order[] orders = new Order[orderCounts.sample(random)];
+            for (int i = 0; i < orders.length; i++) {
+                orders[i] = order(random);
+            }
+            return Customer.of("Customer " + index, orders);
+        }
+
+        private Order order(SplittableRandom random) {
+            LineItem[] lineItems = new LineItem[1 + random.nextInt(maxLineItems)];
+            for (int i = 0; i < lineItems.length; i++) {
+                lineItems[i] = new LineItem(products.get(popularity.sample(random) - 1), 1 + random.nextInt(10));
+            }
+            CurrencyCode currency = random.nextDouble() < invalidOrderRate ? invalidCurrency : currencyMix.sample(random);
+            return Order.of(START.plusSeconds(random.nextLong(SPAN_SECONDS)), currency, statusMix.sample(random), lineItems);
+        }
+    }
+
+    /**
+     * Ranks 1 to n, rank k with probability proportional to 1/k^skew, by binary search in the cumulative distribution.
+     */
+    private static final class Zipf {
+        private final double[] cumulative;
+
+        private Zipf(int n, double skew) {
+            if (n < 1) {
+                throw new IllegalArgumentException("no ranks to draw from");
+            }
+            cumulative = new double[n];
+            double sum = 0;
+            for (int k = 1; k <= n; k++) {
+                sum += 1 / Math.pow(k, skew);
+                cumulative[k - 1] = sum;
+            }
+            for (int k = 0; k < n; k++) {
+                cumulative[k] /= sum;
+            }
+        }
+
+        private int sample(SplittableRandom random) {
+            return bucket(cumulative, random.nextDouble()) + 1;
+        }
+    }
+
+    private static final class Weighted<T> {
+        private final List<T> values;
+        private final double[] cumulative;
+
+        private Weighted(Map<T, Double> weights) {
+            values = new ArrayList<>(weights.keySet());
+            cumulative = new double[values.size()];
+            double sum = 0;
+            for (int i = 0; i < values.size(); i++) {
+                sum += weights.get(values.get(i));
+                cumulative[i] = sum;
+            }
+            // the setters made sure the sum is positive
+            for (int i = 0; i < cumulative.length; i++) {
+                cumulative[i] /= sum;
+            }
+        }
+
+        private T sample(SplittableRandom random) {
+            return values.get(bucket(cumulative, random.nextDouble()));
+        }
+    }
+
+    /**
+     * Index i of the bucket [cumulative[i - 1], cumulative[i]) containing u, so an exact hit belongs
+     * to the next non-empty bucket. Rounding may leave the last cumulative value just below 1,
+     * anything above it goes to the last bucket.
+     */
+    static int bucket(double[] cumulative, double u) {
+        int found = Arrays.binarySearch(cumulative, u);
+        int bucket = found >= 0 ? found : -found - 1;
+        while (bucket < cumulative.length - 1 && cumulative[bucket] <= u) {
+            bucket++;
+        }
+        return Math.min(bucket, cumulative.length - 1);
+    }
+
+    private static int requirePositive(String name, int value) {
+        if (value < 1) {
+            throw new IllegalArgumentException(name + " must be positive: " + value);
+        }
+        return value;
+    }
+
+    private static double requireSkew(double skew) {
+        if (!(skew >= 0 && skew < Double.POSITIVE_INFINITY)) {
+            throw new IllegalArgumentException("skew must be finite and not negative: " + skew);
+        }
+        return skew;
+    }
+
+    private static <T> Map<T, Double> requireWeights(Map<T, Double> weights) {
+        double sum = 0;
+        for (Map.Entry<T, Double> weight : weights.entrySet()) {
+            if (!(weight.getValue() >= 0 && weight.getValue() < Double.POSITIVE_INFINITY)) {
+                throw new IllegalArgumentException("weight of " + weight.getKey() + " must be finite and not negative: " + weight.getValue());
+            }
+            sum += weight.getValue();
+        }
+        if (!(sum > 0)) {
+            throw new IllegalArgumentException("weights have to add up to more than 0: " + weights);
+        }
+        return new LinkedHashMap<>(weights);
+    }
+
+    // spreads consecutive indices over the whole seed space (the finalizer of MurmurHash3)
+    private static long mix(long index) {
+        long z = index + 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 33)) * 0xFF51AFD7ED558CCDL;
+        z = (z ^ (z >>> 33)) * 0xC4CEB9F53A1A34EBL;
+        return z ^ (z >>> 33);
+    }
+
+    private static <K, V> Map<K, V> weights(K k1, V v1, K k2, V v2, K k3, V v3) {
+        Map<K, V> weights = new LinkedHashMap<>();
+        weights.put(k1, v1);
+        weights.put(k2, v2);
+        weights.put(k3, v3);
+        return weights;
+    }
+}
@@ -0,0 +1,108 @@
+package com.epages.docs.streams;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.junit.Test;
+
+import com.neovisionaries.i18n.CurrencyCode;
+
+public class DataGeneratorTest {
+
+    private final DataGenerator generator = new DataGenerator()
+            .seed(7)
+            .customers(2_000)
+            .products(100)
+            .invalidOrderRate(0.05);
+
+    @Test
+    public void should_generate_same_data_for_same_seed() {
+        List<Customer> sequential = generator.customers().collect(Collectors.toList());
+
+        assertThat(generator.customers().parallel().collect(Collectors.toList())).isEqualTo(sequential);
+        assertThat(new DataGenerator().seed(8).customers(2_000).products(100).customers().collect(Collectors.toList()))
+                .isNotEqualTo(sequential);
+    }
+
+    @Test
+    public void should_place_invalid_orders_at_configured_rate() {
+        CustomerService service = new CustomerService(generator.customers().collect(Collectors.toList()));
+
+        List<Order> orders = generator.customers().flatMap(c -> c.getOrders().stream()).collect(Collectors.toList());
+        long invalid = orders.stream().filter(o -> !service.validateOrder(o)).count();
+
+        assertThat((double) invalid / orders.size()).isBetween(0.04, 0.06);
+    }
+
+    @Test
+    public void should_prefer_popular_products() {
+        Map<String, Long> orderedProducts = generator.customers()
+                .flatMap(c -> c.getOrders().stream())
+                .flatMap(o -> o.getLineItems().stream())
+                .collect(Collectors.groupingBy(li -> li.getProduct().getName(), Collectors.counting()));
+
+        assertThat(orderedProducts.get("Product 0")).isGreaterThan(orderedProducts.get("Product 9"));
+        assertThat(orderedProducts.get("Product 9")).isGreaterThan(orderedProducts.getOrDefault("Product 99", 0L));
+    }
+
+    @Test
+    public void should_share_product_instances() {
+        assertThat(generator.customers()
+                .flatMap(c -> c.getOrders().stream())
+                .flatMap(o -> o.getLineItems().stream())
+                .map(LineItem::getProduct)
+                .collect(Collectors.toMap(Product::getName, Function.identity(), (a, b) -> {
+                    assertThat(a).isSameAs(b);
+                    return a;
+                })))
+                .hasSize(100);
+    }
+
+    @Test
+    public void should_price_products_by_given_rates() {
+        Map<CurrencyCode, Double> weights = new HashMap<>();
+        weights.put(CurrencyCode.EUR, 1.0);
+        weights.put(CurrencyCode.DKK, 1.0);
+
+        Product product = new DataGenerator().products(1).rate(CurrencyCode.DKK, 7.5).currencies(weights).products().get(0);
+
+        assertThat((double) product.getPrices().get(CurrencyCode.DKK))
+                .isCloseTo(7.5 * product.getPrices().get(CurrencyCode.EUR), within(1.0));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void should_reject_currencies_without_rate() {
+        new DataGenerator().currencies(Collections.singletonMap(CurrencyCode.DKK, 1.0));
+    }
+
+    @Test
+    public void should_put_exact_hits_into_next_bucket() {
+        double[] cumulative = {0.25, 0.5, 0.5, 1.0};
+
+        assertThat(DataGenerator.bucket(cumulative, 0.0)).isEqualTo(0);
+        assertThat(DataGenerator.bucket(cumulative, 0.25)).isEqualTo(1);
+        assertThat(DataGenerator.bucket(cumulative, 0.5)).isEqualTo(3);
+        assertThat(DataGenerator.bucket(new double[]{0.5, 0.9999999}, 0.99999995)).isEqualTo(1);
+    }
+
+    @Test
+    public void should_reject_invalid_settings() {
+        assertThatThrownBy(() -> new DataGenerator().products(0)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new DataGenerator().maxLineItems(0)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new DataGenerator().ordersPerCustomer(0, 1.0)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new DataGenerator().productSkew(Double.NaN)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new DataGenerator().invalidOrderRate(1.5)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new DataGenerator().currencies(Collections.singletonMap(CurrencyCode.EUR, -1.0)))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new DataGenerator().statuses(Collections.singletonMap(Order.PaymentStatus.PAID, 0.0)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,115 @@
+package com.epages.docs.streams;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Arrays;
+import java.util.Currency;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collector;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import org.junit.Test;
+
+import com.epages.docs.streams.Order.PaymentStatus;
+
+public class KeyedCollectorsTest {
+
+    private static final PaymentStatus[] STATUSES = PaymentStatus.values();
+
+    private interface Key {
+    }
+
+    private enum Color implements Key {
+        RED, GREEN
+    }
+
+    private enum Shape implements Key {
+        CIRCLE, SQUARE
+    }
+
+    @Test
+    public void should_group_enum_keys_into_enum_map() {
+        Map<PaymentStatus, List<Integer>> groups = IntStream.range(0, 10).boxed()
+                .collect(KeyedCollectors.groupingBy(i -> STATUSES[i % 2]));
+
+        assertThat(groups).isInstanceOf(EnumMap.class).doesNotContainKey(PaymentStatus.CANCELLED);
+        assertThat(groups.get(PaymentStatus.OPEN)).containsExactly(0, 2, 4, 6, 8);
+    }
+
+    @Test
+    public void should_group_other_keys() {
+        Map<Currency, List<String>> groups = Stream.of("EUR", "USD", "EUR")
+                .collect(KeyedCollectors.groupingBy(Currency::getInstance));
+
+        assertThat(groups.get(Currency.getInstance("EUR"))).hasSize(2);
+    }
+
+    @Test
+    public void should_keep_constants_of_different_enums_apart() {
+        Key[] keys = { Color.RED, Shape.CIRCLE, Color.GREEN, Shape.SQUARE };
+        Map<Key, Long> sequential = IntStream.range(0, 1000).boxed()
+                .collect(KeyedCollectors.summingLong(i -> keys[i % 4], i -> 1));
+        Map<Key, Long> parallel = IntStream.range(0, 100_000).boxed().parallel()
+                .collect(KeyedCollectors.summingLong(i -> keys[i % 4], i -> 1));
+
+        assertThat(sequential).hasSize(4).containsEntry(Color.RED, 250L).containsEntry(Shape.CIRCLE, 250L);
+        assertThat(parallel).hasSize(4).containsEntry(Shape.SQUARE, 25_000L);
+    }
+
+    @Test
+    public void should_mix_enum_and_other_keys() {
+        Map<Object, List<Integer>> groups = IntStream.range(0, 6).boxed()
+                .collect(KeyedCollectors.groupingBy(i -> i % 2 == 0 ? STATUSES[0] : (Object) "odd"));
+
+        assertThat(groups.get(PaymentStatus.OPEN)).containsExactly(0, 2, 4);
+        assertThat(groups.get("odd")).containsExactly(1, 3, 5);
+    }
+
+    @Test
+    public void should_sum_in_parallel() {
+        Map<PaymentStatus, Long> sums = IntStream.range(0, 100_000).boxed().parallel()
+                .collect(KeyedCollectors.summingLong(i -> STATUSES[i % 3], i -> i));
+        Map<PaymentStatus, Long> concurrentSums = IntStream.range(0, 100_000).boxed().parallel()
+                .collect(KeyedCollectors.summingLongConcurrent(PaymentStatus.class, i -> STATUSES[i % 3], i -> i));
+
+        long expected = IntStream.range(0, 100_000).filter(i -> i % 3 == 1).asLongStream().sum();
+        assertThat(sums.get(PaymentStatus.PAID)).isEqualTo(expected);
+        assertThat(concurrentSums).isEqualTo(sums);
+    }
+
+    @Test
+    public void should_group_concurrently() {
+        Map<PaymentStatus, List<Integer>> groups = IntStream.range(0, 100_000).boxed().parallel()
+                .collect(KeyedCollectors.groupingByConcurrent(PaymentStatus.class, i -> STATUSES[i % 2]));
+
+        assertThat(groups.get(PaymentStatus.PAID)).hasSize(50_000);
+        assertThat(groups).doesNotContainKey(PaymentStatus.CANCELLED);
+    }
+
+    @Test
+    public void should_combine_separate_concurrent_containers() {
+        List<Integer> first = Arrays.asList(0, 1, 2);
+        List<Integer> second = Arrays.asList(3, 4, 5, 6);
+
+        Map<PaymentStatus, List<Integer>> groups = combine(
+                KeyedCollectors.groupingByConcurrent(PaymentStatus.class, i -> STATUSES[i % 2]), first, second);
+        Map<PaymentStatus, Long> sums = combine(
+                KeyedCollectors.summingLongConcurrent(PaymentStatus.class, i -> STATUSES[i % 2], i -> i), first, second);
+
+        assertThat(groups.get(PaymentStatus.OPEN)).containsOnly(0, 2, 4, 6);
+        assertThat(groups.get(PaymentStatus.PAID)).containsOnly(1, 3, 5);
+        assertThat(sums.get(PaymentStatus.OPEN)).isEqualTo(12);
+        assertThat(sums.get(PaymentStatus.PAID)).isEqualTo(9);
+    }
+
+    private static <T, A, R> R combine(Collector<T, A, R> collector, List<T> first, List<T> second) {
+        A left = collector.supplier().get();
+        first.forEach(t -> collector.accumulator().accept(left, t));
+        A right = collector.supplier().get();
+        second.forEach(t -> collector.accumulator().accept(right, t));
+        return collector.finisher().apply(collector.combiner().apply(left, right));
+    }
+}
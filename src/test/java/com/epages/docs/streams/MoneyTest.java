@@ -0,0 +1,39 @@
+package com.epages.docs.streams;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.Test;
+
+import com.neovisionaries.i18n.CurrencyCode;
+
+public class MoneyTest {
+
+    @Test
+    public void should_format_minor_units() {
+        assertThat(Money.of(1234, CurrencyCode.EUR).toString()).isEqualTo("12.34 EUR");
+        assertThat(Money.of(5, CurrencyCode.EUR).toString()).isEqualTo("0.05 EUR");
+        assertThat(Money.of(0, CurrencyCode.USD).toString()).isEqualTo("0.00 USD");
+        assertThat(Money.of(-100, CurrencyCode.EUR).toString()).isEqualTo("-1.00 EUR");
+    }
+
+    @Test
+    public void should_format_currencies_without_fraction() {
+        assertThat(Money.of(1234, CurrencyCode.JPY).toString()).isEqualTo("1234 JPY");
+        assertThat(Money.of(1234, CurrencyCode.BHD).toString()).isEqualTo("1.234 BHD");
+    }
+
+    @Test
+    public void should_format_extremes() {
+        assertThat(Money.of(Long.MIN_VALUE, CurrencyCode.JPY).toString()).isEqualTo(Long.MIN_VALUE + " JPY");
+        assertThat(Money.of(Long.MAX_VALUE, CurrencyCode.JPY).toString()).isEqualTo(Long.MAX_VALUE + " JPY");
+    }
+
+    @Test
+    public void should_append_to_given_builder() {
+        StringBuilder invoice = new StringBuilder("Total: ");
+
+        Money.of(199, CurrencyCode.EUR).appendTo(invoice);
+
+        assertThat(invoice.toString()).isEqualTo("Total: 1.99 EUR");
+    }
+}
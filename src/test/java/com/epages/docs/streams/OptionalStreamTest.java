@@ -1,11 +1,15 @@
 package com.epages.docs.streams;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.junit.Before;
 import org.junit.Test;
@@ -80,6 +84,154 @@ public class OptionalStreamTest {
         assertThat(service.getOutstandingAmount()).isEqualByComparingTo(1L);
     }
 
+    @Test
+    public void should_get_outstanding_money() {
+        assertThat(service.getOutstandingMoney().toString()).isEqualTo("0.01 EUR");
+    }
+
+    @Test
+    public void should_find_tom_as_top_customer() {
+        assertThat(service.getTopCustomersByOutstandingAmount(1)).extracting(Customer::getName).containsExactly("Tom Sawyer");
+        assertThat(service.getTopCustomersByOutstandingAmount(5)).hasSize(2);
+    }
+
+    @Test
+    public void should_get_paid_orders_of_last_hour() {
+        LocalDateTime now = LocalDateTime.now();
+
+        assertThat(service.getAllPaidOrders(CurrencyCode.EUR, now.minusHours(1), now.plusMinutes(1))).hasSize(1);
+        assertThat(service.getAllPaidOrders(CurrencyCode.EUR, now.minusHours(2), now.minusHours(1))).isEmpty();
+    }
+
+    @Test
+    public void should_find_open_order_of_last_hour() {
+        LocalDateTime now = LocalDateTime.now();
+
+        assertThat(service.getOrdersByStatus("Tom Sawyer", now.minusHours(1), now.plusMinutes(1)).get(PaymentStatus.OPEN)).hasSize(1);
+        assertThat(service.getOutstandingAmount(now.minusHours(1), now.plusMinutes(1))).isEqualTo(service.getOutstandingAmount());
+    }
+
+    @Test
+    public void should_respect_window_bounds_within_millisecond() {
+        LocalDateTime createdAt = LocalDateTime.of(2016, 6, 1, 14, 42, 0, 500_000);
+        Order order = Order.of(createdAt, CurrencyCode.EUR, PaymentStatus.PAID, fixture.cookieLineItems().get(0));
+        CustomerService service = new CustomerService(Collections.singletonList(Customer.of("Huck", order)));
+
+        assertThat(service.getAllPaidOrders(CurrencyCode.EUR, createdAt, createdAt.plusNanos(1))).hasSize(1);
+        assertThat(service.getAllPaidOrders(CurrencyCode.EUR, createdAt.minusNanos(1), createdAt)).isEmpty();
+        assertThat(service.getAllPaidOrders(CurrencyCode.EUR, createdAt.plusNanos(1), createdAt.plusNanos(2))).isEmpty();
+    }
+
+    @Test
+    public void should_accept_unbounded_windows() {
+        assertThat(service.getAllPaidOrders(CurrencyCode.EUR, LocalDateTime.MIN, LocalDateTime.MAX)).hasSize(1);
+        assertThat(service.getOrdersByStatus("Tom Sawyer", LocalDateTime.MIN, LocalDateTime.MAX))
+                .isEqualTo(service.getOrdersByStatus("Tom Sawyer"));
+        assertThat(service.getAllPaidOrders(CurrencyCode.EUR, LocalDateTime.MAX, LocalDateTime.MAX)).isEmpty();
+        assertThat(new CustomerService(Collections.emptyList()).getAllPaidOrders(CurrencyCode.EUR, LocalDateTime.MIN, LocalDateTime.MAX))
+                .isEmpty();
+    }
+
+    @Test
+    public void should_compare_orders_by_value() {
+        LocalDateTime createdAt = LocalDateTime.of(2016, 6, 1, 14, 42);
+        Order order = Order.of(createdAt, CurrencyCode.EUR, PaymentStatus.PAID, fixture.cookieLineItems().get(0));
+        Order same = Order.of(createdAt, CurrencyCode.EUR, PaymentStatus.PAID, fixture.cookieLineItems().get(0));
+        Order other = Order.of(createdAt, CurrencyCode.EUR, PaymentStatus.OPEN, fixture.cookieLineItems().get(0));
+
+        assertThat(order).isEqualTo(same).isNotEqualTo(other);
+        assertThat(order.hashCode()).isEqualTo(same.hashCode());
+    }
+
+    @Test
+    public void should_not_be_affected_by_changes_to_passed_collections() {
+        List<Order> toms = fixture.tomsOrders();
+        List<Order> orders = new ArrayList<>(toms);
+        Customer customer = new Customer("Tom Sawyer", orders);
+        int hash = customer.hashCode();
+
+        orders.clear();
+
+        assertThat(customer.getOrders()).hasSize(2);
+        assertThat(customer.hashCode()).isEqualTo(hash);
+        assertThat(customer).isEqualTo(new Customer("Tom Sawyer", toms));
+    }
+
+    @Test
+    public void should_treat_null_price_as_no_price() {
+        Map<CurrencyCode, Long> prices = new HashMap<>();
+        prices.put(CurrencyCode.EUR, 100L);
+        prices.put(CurrencyCode.USD, null);
+
+        Product product = new Product("Cookie", "Chocolate chip", prices);
+
+        assertThat(product.getPrices()).containsOnlyKeys(CurrencyCode.EUR);
+        assertThat(product.getPriceTable().contains(CurrencyCode.USD)).isFalse();
+        assertThat(product.getPriceTable().get(CurrencyCode.EUR)).isEqualTo(100L);
+    }
+
+    @Test
+    public void should_share_products_of_catalog() {
+        ProductCatalog catalog = new ProductCatalog();
+        Product cookie = catalog.intern(fixture.paidCookieOrder().getLineItems().get(0).getProduct());
+
+        CustomerService pooled = new CustomerService(fixture.customers(), catalog);
+
+        assertThat(pooled.findAll().get(0).getOrders().get(1).getLineItems().get(0).getProduct()).isSameAs(cookie);
+        assertThat(catalog.size()).isEqualTo(2);
+    }
+
+    @Test
+    public void should_answer_like_unsharded_service() {
+        try (ShardedCustomerService sharded = ShardedCustomerService.remote(fixture.customers(), 3)) {
+            assertThat(sharded.findByName("Tom Sawyer")).isPresent();
+            assertThat(sharded.getOrdersByStatus("Tom Sawyer").get(PaymentStatus.PAID)).hasSize(1);
+            assertThat(sharded.getAllPaidOrders(CurrencyCode.EUR)).hasSize(1);
+            assertThat(sharded.getUnhappyCustomers()).isEmpty();
+            assertThat(sharded.getOutstandingAmount()).isEqualTo(service.getOutstandingAmount());
+        }
+    }
+
+    @Test
+    public void should_cache_until_customer_changes() {
+        CachingCustomerService cached = new CachingCustomerService(service, 10);
+
+        assertThat(cached.getAllPaidOrders(CurrencyCode.EUR)).hasSize(1);
+        assertThat(cached.getAllPaidOrders(CurrencyCode.EUR)).hasSize(1);
+        assertThat(cached.stats().hitCount()).isEqualTo(1);
+
+        cached.updateCustomer(new Customer("Betty Barkeley", Collections.singletonList(fixture.paidCookieOrder())));
+
+        assertThat(cached.getAllPaidOrders(CurrencyCode.EUR)).hasSize(2);
+        assertThat(cached.stats().missCount()).isEqualTo(2);
+    }
+
+    @Test
+    public void should_not_let_callers_change_cached_results() {
+        CachingCustomerService cached = new CachingCustomerService(service, 10);
+
+        List<Order> paid = cached.getOrdersByStatus("Tom Sawyer").get(PaymentStatus.PAID);
+        assertThatThrownBy(paid::clear).isInstanceOf(UnsupportedOperationException.class);
+        assertThatThrownBy(() -> cached.getAllPaidOrders(CurrencyCode.EUR).clear()).isInstanceOf(UnsupportedOperationException.class);
+
+        assertThat(cached.getOrdersByStatus("Tom Sawyer").get(PaymentStatus.PAID)).hasSize(1);
+        assertThat(cached.stats().hitCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void should_record_query_metrics() {
+        InstrumentedCustomerService instrumented = new InstrumentedCustomerService(service, new QueryMetrics());
+
+        instrumented.validateOrder(fixture.paidCookieOrder());
+        instrumented.getOrdersByStatus("Tom Sawyer");
+
+        QueryMetrics metrics = instrumented.getMetrics();
+        assertThat(metrics.count(QueryMetrics.Query.VALIDATE_ORDER)).isEqualTo(1);
+        assertThat(metrics.lineItems(QueryMetrics.Query.VALIDATE_ORDER)).isEqualTo(1);
+        assertThat(metrics.orders(QueryMetrics.Query.ORDERS_BY_STATUS)).isEqualTo(2);
+        assertThat(metrics.latency(QueryMetrics.Query.ORDERS_BY_STATUS, 99)).isPositive();
+    }
+
     private static class TestFixture {
 
         private List<Customer> customers() {
@@ -0,0 +1,37 @@
+package com.epages.docs.streams;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import org.junit.Test;
+
+public class TopKTest {
+
+    private final List<Long> values = new Random(42).longs(100_000).boxed().collect(Collectors.toList());
+
+    private final List<Long> expected = values.stream()
+            .sorted(Comparator.reverseOrder())
+            .limit(10)
+            .collect(Collectors.toList());
+
+    @Test
+    public void should_keep_largest() {
+        assertThat(values.stream().collect(TopK.largest(10, Comparator.naturalOrder()))).isEqualTo(expected);
+        assertThat(values.parallelStream().collect(TopK.largest(10, Comparator.naturalOrder()))).isEqualTo(expected);
+    }
+
+    @Test
+    public void should_keep_largest_by_long() {
+        assertThat(values.stream().collect(TopK.largestByLong(10, Long::longValue))).isEqualTo(expected);
+        assertThat(values.parallelStream().collect(TopK.largestByLong(10, Long::longValue))).isEqualTo(expected);
+    }
+
+    @Test
+    public void should_keep_nothing() {
+        assertThat(values.stream().collect(TopK.largestByLong(0, Long::longValue))).isEmpty();
+    }
+}